@@ -0,0 +1,91 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.ralscha.extdirectspring.controller.BatchedMethodsExecutionPolicy;
+import ch.ralscha.extdirectspring.controller.Configuration;
+
+/**
+ * Throughput of batched router requests with the sequential and the concurrent
+ * execution policy. The concurrent policy uses the default executor of the
+ * ConfigurationService with five threads:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="-prof gc BatchBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+	@Param({ "SEQUENTIAL", "CONCURRENT" })
+	public BatchedMethodsExecutionPolicy policy;
+
+	@Param({ "2", "10" })
+	public int batchSize;
+
+	private BenchmarkContext context;
+
+	private byte[] batch;
+
+	@Setup
+	public void setup() throws IOException {
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutionPolicy(this.policy);
+		this.context = new BenchmarkContext(configuration);
+
+		List<Map<String, Object>> calls = new ArrayList<>(this.batchSize);
+		for (int i = 0; i < this.batchSize; i++) {
+			calls.add(BenchmarkContext.call("echo", i + 1, List.of("hello", i)));
+		}
+		this.batch = BenchmarkContext.body(calls);
+		this.context.verify(this.batch);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public byte[] batch() throws IOException {
+		return this.context.route(this.batch);
+	}
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.benchmark;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.ralscha.extdirectspring.controller.Configuration;
+import ch.ralscha.extdirectspring.controller.RouterController;
+import ch.ralscha.extdirectspring.util.ApiCache;
+import ch.ralscha.extdirectspring.util.ExtDirectSpringUtil;
+
+/**
+ * Application context with the extdirectspring beans and the {@link BenchmarkService}.
+ * Requests are passed directly to the {@link RouterController}, without a
+ * DispatcherServlet, so that only the router is measured.
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private final GenericWebApplicationContext context;
+
+	private final RouterController routerController;
+
+	BenchmarkContext(Configuration configuration) {
+		this(configuration, true);
+	}
+
+	/**
+	 * @param beanCache false registers the {@link BenchmarkService} in a scope that
+	 * always returns the same instance but is not a singleton scope. MethodInfo does not
+	 * cache beans of such a scope and calls ApplicationContext.getBean on every call.
+	 */
+	BenchmarkContext(Configuration configuration, boolean beanCache) {
+		this.context = new GenericWebApplicationContext(new MockServletContext());
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(this.context);
+		this.context.registerBean("extDirectSpringConfiguration", Configuration.class, () -> configuration);
+		this.context.registerBean(Config.class);
+		if (!beanCache) {
+			this.context.addBeanFactoryPostProcessor(beanFactory -> {
+				beanFactory.registerScope(SingleInstanceScope.NAME, new SingleInstanceScope());
+				beanFactory.getBeanDefinition("benchmarkService").setScope(SingleInstanceScope.NAME);
+			});
+		}
+		this.context.refresh();
+		this.routerController = this.context.getBean(RouterController.class);
+	}
+
+	/**
+	 * Sends the body to the router and checks that none of the calls failed.
+	 */
+	byte[] verify(byte[] body) throws IOException {
+		return check(route(body), "rpc");
+	}
+
+	/**
+	 * Calls the POLL method and checks that it did not fail.
+	 */
+	byte[] verifyPoll(String method, String event) throws Exception {
+		return check(poll(method, event), "event");
+	}
+
+	private static byte[] check(byte[] response, String type) {
+		String json = new String(response, ExtDirectSpringUtil.UTF8_CHARSET);
+		if (!json.contains("\"type\":\"" + type + "\"") || json.contains("\"type\":\"exception\"")) {
+			throw new IllegalStateException("Unexpected response: " + json);
+		}
+		return response;
+	}
+
+	byte[] route(byte[] body) throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/router");
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent(body);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		DeferredResult<ModelAndView> deferredResult = this.routerController.router(request, response, Locale.ENGLISH);
+		if (deferredResult != null) {
+			throw new IllegalStateException("The benchmark methods must not return asynchronous results");
+		}
+		return response.getContentAsByteArray();
+	}
+
+	byte[] poll(String method, String event) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET",
+				"/poll/benchmarkService/" + method + "/" + event);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		DeferredResult<ModelAndView> deferredResult = this.routerController.poll("benchmarkService", method, event,
+				request, response, Locale.ENGLISH);
+		if (deferredResult != null) {
+			throw new IllegalStateException("The benchmark methods must not return asynchronous results");
+		}
+		return response.getContentAsByteArray();
+	}
+
+	@Override
+	public void close() {
+		this.context.close();
+	}
+
+	static Map<String, Object> call(String method, int tid, Object data) {
+		Map<String, Object> call = new LinkedHashMap<>();
+		call.put("action", "benchmarkService");
+		call.put("method", method);
+		call.put("data", data);
+		call.put("type", "rpc");
+		call.put("tid", tid);
+		return call;
+	}
+
+	static byte[] body(Object calls) throws JsonProcessingException {
+		return mapper.writeValueAsBytes(calls);
+	}
+
+	static byte[] body(String method, Object data) throws JsonProcessingException {
+		return body(call(method, 1, data));
+	}
+
+	/**
+	 * Scope that creates one instance per bean, like a singleton, but is not reported as
+	 * singleton by the bean factory.
+	 */
+	static final class SingleInstanceScope implements Scope {
+
+		static final String NAME = "singleInstance";
+
+		private final Map<String, Object> instances = new ConcurrentHashMap<>();
+
+		@Override
+		public Object get(String name, ObjectFactory<?> objectFactory) {
+			return this.instances.computeIfAbsent(name, key -> objectFactory.getObject());
+		}
+
+		@Override
+		public Object remove(String name) {
+			return this.instances.remove(name);
+		}
+
+		@Override
+		public void registerDestructionCallback(String name, Runnable callback) {
+			// the instances live as long as the context
+		}
+
+		@Override
+		public Object resolveContextualObject(String key) {
+			return null;
+		}
+
+		@Override
+		public String getConversationId() {
+			return null;
+		}
+
+	}
+
+	@org.springframework.context.annotation.Configuration
+	@EnableWebMvc
+	@ComponentScan(basePackageClasses = { RouterController.class, ApiCache.class, BenchmarkService.class })
+	static class Config {
+
+		// the beans are found by the component scan
+
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreResult;
+import ch.ralscha.extdirectspring.bean.SortDirection;
+import ch.ralscha.extdirectspring.bean.SortInfo;
+import ch.ralscha.extdirectspring.filter.Comparison;
+import ch.ralscha.extdirectspring.filter.Filter;
+import ch.ralscha.extdirectspring.filter.NumericFilter;
+import ch.ralscha.extdirectspring.filter.StringFilter;
+
+/**
+ * Remote methods called by the benchmarks. The methods do as little work as possible,
+ * so the measurements are dominated by the router.
+ */
+@Service
+public class BenchmarkService {
+
+	private static final String[] CATEGORIES = { "books", "music", "games", "tools" };
+
+	private final List<Item> items = new ArrayList<>();
+
+	public BenchmarkService() {
+		for (int i = 0; i < 1000; i++) {
+			this.items.add(new Item(i, "item " + i, CATEGORIES[i % CATEGORIES.length], i % 100 * 9.5));
+		}
+	}
+
+	@ExtDirectMethod
+	public String echo(String value, int count) {
+		return value + count;
+	}
+
+	@ExtDirectMethod(ExtDirectMethodType.SIMPLE_NAMED)
+	public String echoNamed(String value, int count) {
+		return value + count;
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "tick")
+	public String tick() {
+		return "tick";
+	}
+
+	@ExtDirectMethod(ExtDirectMethodType.STORE_READ)
+	public ExtDirectStoreResult<Item> read(ExtDirectStoreReadRequest request) {
+		Stream<Item> stream = this.items.stream();
+		for (Filter filter : request.getFilters()) {
+			if (filter instanceof NumericFilter numericFilter && "price".equals(filter.getField())) {
+				double value = numericFilter.getValue().doubleValue();
+				stream = filter.getComparison() == Comparison.LESS_THAN ? stream.filter(item -> item.getPrice() < value)
+						: stream.filter(item -> item.getPrice() >= value);
+			}
+			else if (filter instanceof StringFilter stringFilter && "category".equals(filter.getField())) {
+				stream = stream.filter(item -> item.getCategory().equals(stringFilter.getValue()));
+			}
+		}
+
+		Comparator<Item> comparator = null;
+		for (SortInfo sortInfo : request.getSorters()) {
+			Comparator<Item> propertyComparator = "price".equals(sortInfo.getProperty())
+					? Comparator.comparingDouble(Item::getPrice) : Comparator.comparing(Item::getName);
+			if (sortInfo.getDirection() == SortDirection.DESCENDING) {
+				propertyComparator = propertyComparator.reversed();
+			}
+			comparator = comparator == null ? propertyComparator : comparator.thenComparing(propertyComparator);
+		}
+
+		List<Item> filtered = (comparator != null ? stream.sorted(comparator) : stream).toList();
+		int start = request.getStart() != null ? request.getStart() : 0;
+		int limit = request.getLimit() != null ? request.getLimit() : filtered.size();
+		List<Item> page = filtered.subList(Math.min(start, filtered.size()),
+				Math.min(start + limit, filtered.size()));
+		return new ExtDirectStoreResult<>(filtered.size(), page);
+	}
+
+	@ExtDirectMethod(ExtDirectMethodType.STORE_MODIFY)
+	public List<Item> update(List<Item> items) {
+		for (Item item : items) {
+			item.setPrice(item.getPrice() * 1.1);
+		}
+		return items;
+	}
+
+}
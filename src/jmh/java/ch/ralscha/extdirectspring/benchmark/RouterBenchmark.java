@@ -0,0 +1,145 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.ralscha.extdirectspring.controller.Configuration;
+
+/**
+ * Throughput of single router requests for the different method types and of POLL
+ * requests. {@code beanCache} compares the cached target bean with a lookup in the
+ * application context on every call. Run with the gc profiler to see the allocation
+ * rate per call:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="-prof gc RouterBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean beanCache;
+
+	private BenchmarkContext context;
+
+	private byte[] simple;
+
+	private byte[] simpleNamed;
+
+	private byte[] storeRead;
+
+	@Setup
+	public void setup() throws Exception {
+		this.context = new BenchmarkContext(new Configuration(), this.beanCache);
+
+		this.simple = BenchmarkContext.body("echo", List.of("hello", 3));
+
+		Map<String, Object> named = new LinkedHashMap<>();
+		named.put("value", "hello");
+		named.put("count", 3);
+		this.simpleNamed = BenchmarkContext.body("echoNamed", named);
+
+		Map<String, Object> readRequest = new LinkedHashMap<>();
+		readRequest.put("page", 1);
+		readRequest.put("start", 0);
+		readRequest.put("limit", 25);
+		readRequest.put("sort", List.of(Map.of("property", "price", "direction", "DESC"),
+				Map.of("property", "name", "direction", "ASC")));
+		readRequest.put("filter", List.of(Map.of("property", "price", "operator", "lt", "value", 500),
+				Map.of("property", "category", "value", "books")));
+		this.storeRead = BenchmarkContext.body("read", List.of(readRequest));
+
+		this.context.verify(this.simple);
+		this.context.verify(this.simpleNamed);
+		this.context.verify(this.storeRead);
+		this.context.verifyPoll("tick", "tick");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public byte[] simple() throws IOException {
+		return this.context.route(this.simple);
+	}
+
+	@Benchmark
+	public byte[] simpleNamed() throws IOException {
+		return this.context.route(this.simpleNamed);
+	}
+
+	@Benchmark
+	public byte[] storeRead() throws IOException {
+		return this.context.route(this.storeRead);
+	}
+
+	@Benchmark
+	public byte[] poll() throws Exception {
+		return this.context.poll("tick", "tick");
+	}
+
+	@Benchmark
+	public byte[] storeModify(StoreModifyRequest request) throws IOException {
+		return this.context.route(request.body);
+	}
+
+	@State(Scope.Benchmark)
+	public static class StoreModifyRequest {
+
+		@Param({ "1", "100", "10000" })
+		public int records;
+
+		byte[] body;
+
+		@Setup
+		public void setup() throws IOException {
+			List<Item> items = new ArrayList<>(this.records);
+			for (int i = 0; i < this.records; i++) {
+				items.add(new Item(i, "item " + i, "books", i * 1.5));
+			}
+			this.body = BenchmarkContext.body("update", List.of(Map.of("records", items)));
+		}
+
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the results of a method annotated with {@link ExtDirectMethod}. The cache key
+ * consists of the name of the bean, the name of the method and the resolved parameters.
+ * An {@link ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest} is compared by its
+ * paging, sorting, grouping, filter and params values. Locale and principal parameters
+ * are part of the key, so a method that depends on the current user should declare them.
+ * <p>
+ * The annotation is ignored, with a warning, on methods with a
+ * {@link jakarta.servlet.ServletRequest}, {@link jakarta.servlet.ServletResponse} or
+ * {@link jakarta.servlet.http.HttpSession} parameter, because their results may depend on
+ * the request or the session.
+ * <p>
+ * Null results and asynchronous results are never cached. Once the cache holds
+ * {@link #maxEntries()} results the least recently used entry is evicted.
+ *
+ * @see ch.ralscha.extdirectspring.util.MethodResultCache
+ */
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface ExtDirectCacheable {
+
+	/**
+	 * Time to live of a cached result in {@link #timeUnit()}. 0 means that results never
+	 * expire and are only removed by the LRU eviction.
+	 * <p>
+	 * Defaults to 0
+	 */
+	long ttl() default 0;
+
+	/**
+	 * The unit of {@link #ttl()}. Defaults to {@link TimeUnit#SECONDS}
+	 */
+	TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+	/**
+	 * Maximum number of cached results.
+	 * <p>
+	 * Defaults to 1000
+	 */
+	int maxEntries() default 1000;
+
+}
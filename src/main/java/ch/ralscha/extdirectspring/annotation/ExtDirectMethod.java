@@ -66,6 +66,16 @@ public @interface ExtDirectMethod {
 	 */
 	boolean synchronizeOnSession() default false;
 
+	/**
+	 * (Optional) Not feasible for FORM_POST methods. Declares how the method accesses the
+	 * session. Methods with {@link SessionAccess#SHARED} access, for example methods that
+	 * only read data, run in parallel within a session, methods with
+	 * {@link SessionAccess#EXCLUSIVE} access run alone. SHARED takes precedence over the
+	 * global synchronizeOnSession flag of the Configuration. Defaults to
+	 * {@link SessionAccess#DEFAULT}.
+	 */
+	SessionAccess sessionAccess() default SessionAccess.DEFAULT;
+
 	/**
 	 * (Optional) Not feasible for FORM_POST methods. If true JSON responses will be
 	 * streamed into the response, without setting the Content-Length HTTP header. Default
@@ -74,6 +84,26 @@ public @interface ExtDirectMethod {
 	 */
 	boolean streamResponse() default false;
 
+	/**
+	 * (Optional) Not feasible for FORM_POST methods. Server side timeout in milliseconds.
+	 * If the method has not returned within this time, the call is cancelled and the
+	 * client receives an exception response for it. Applies to asynchronous results
+	 * (CompletionStage, DeferredResult) and to methods of batched requests executed with
+	 * BatchedMethodsExecutionPolicy CONCURRENT or VIRTUAL_THREADS. Default (0) is no
+	 * timeout.
+	 */
+	long timeout() default 0;
+
+	/**
+	 * (Optional) Only feasible for SIMPLE, SIMPLE_NAMED, STORE_READ, FORM_LOAD and
+	 * TREE_LOAD methods that have no side effects. If true and a batched request contains
+	 * several calls of this method with the same data and metadata, the method is only
+	 * executed once and the result is sent back for every tid. With
+	 * Configuration.coalesceIdempotentCalls concurrent identical calls from different
+	 * requests share one execution as well.
+	 */
+	boolean idempotent() default false;
+
 	/**
 	 * (Optional) Only feasible for STORE_MODIFY methods. Specifies the type of an object
 	 * in a collection. If the generic type of a collection is an interface the library
@@ -17,6 +17,11 @@ package ch.ralscha.extdirectspring.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.security.Principal;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpSession;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -323,6 +328,39 @@ public enum ExtDirectMethodType {
 						+ "' does not support batched attribute of @ExtDirectMethod");
 			}
 
+			if (AnnotationUtils.findAnnotation(method, ExtDirectSharedPoll.class) != null) {
+				if (extDirectMethodAnnotation.synchronizeOnSession()
+						|| extDirectMethodAnnotation.sessionAccess() == SessionAccess.EXCLUSIVE
+						|| extDirectMethodAnnotation.sessionAccess() == SessionAccess.SHARED) {
+					log.error("POLL method '" + beanAndMethodName
+							+ "' with @ExtDirectSharedPoll must not synchronize on the session");
+					return false;
+				}
+
+				for (Class<?> parameterType : method.getParameterTypes()) {
+					if (ServletRequest.class.isAssignableFrom(parameterType)
+							|| ServletResponse.class.isAssignableFrom(parameterType)
+							|| HttpSession.class.isAssignableFrom(parameterType)
+							|| Principal.class.isAssignableFrom(parameterType)) {
+						log.error("POLL method '" + beanAndMethodName
+								+ "' with @ExtDirectSharedPoll must not have a request, response, session"
+								+ " or principal parameter");
+						return false;
+					}
+				}
+
+				for (Annotation[] paramAnnotations : method.getParameterAnnotations()) {
+					for (Annotation paramAnnotation : paramAnnotations) {
+						if (paramAnnotation.annotationType().getSimpleName().equals("AuthenticationPrincipal")) {
+							log.error(
+									"POLL method '" + beanAndMethodName + "' with @ExtDirectSharedPoll must not have an"
+											+ " @AuthenticationPrincipal parameter");
+							return false;
+						}
+					}
+				}
+			}
+
 			return true;
 		}
 	},
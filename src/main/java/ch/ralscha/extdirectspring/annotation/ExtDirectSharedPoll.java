@@ -0,0 +1,58 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares the result of a {@link ExtDirectMethodType#POLL} method between all clients that
+ * poll it with the same parameters. The first poll calls the method, afterwards a
+ * scheduler calls it again every {@link #refreshInterval()} and all polls are answered
+ * with the same serialized response without calling the method.
+ * <p>
+ * The key of a shared result consists of the name of the bean, the name of the method and
+ * the resolved parameters, like the key of {@link ExtDirectCacheable}. The scheduled
+ * calls reuse these parameters and never hold a session lock. A method with a request,
+ * response, session, {@link java.security.Principal} or {@code @AuthenticationPrincipal}
+ * parameter or with session synchronization is not registered. A shared result that
+ * nobody polled for ten intervals is removed.
+ *
+ * @see ch.ralscha.extdirectspring.controller.PollEventPublisher
+ */
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface ExtDirectSharedPoll {
+
+	/**
+	 * Delay between the end of a call and the start of the next call in
+	 * {@link #timeUnit()}.
+	 */
+	long refreshInterval();
+
+	/**
+	 * The unit of {@link #refreshInterval()}. Defaults to {@link TimeUnit#SECONDS}
+	 */
+	TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+}
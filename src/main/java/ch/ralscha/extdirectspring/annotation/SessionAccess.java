@@ -0,0 +1,44 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.annotation;
+
+/**
+ * Enumeration of the ways a method can be synchronized on the session.
+ *
+ * @see ExtDirectMethod#sessionAccess()
+ */
+public enum SessionAccess {
+
+	/**
+	 * The method holds the exclusive lock of the session if
+	 * {@link ExtDirectMethod#synchronizeOnSession()} or the global synchronizeOnSession
+	 * flag of the Configuration is true, otherwise it is not synchronized.
+	 */
+	DEFAULT,
+
+	/**
+	 * The method holds the shared lock of the session. Shared calls of a session run in
+	 * parallel, they only wait for calls that hold the exclusive lock.
+	 */
+	SHARED,
+
+	/**
+	 * The method holds the exclusive lock of the session. Same as
+	 * {@link ExtDirectMethod#synchronizeOnSession()} set to true.
+	 */
+	EXCLUSIVE
+
+}
@@ -17,6 +17,8 @@ package ch.ralscha.extdirectspring.bean;
 
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Represents the request of an Ext Direct call. Internal class.
  */
@@ -34,6 +36,9 @@ public class ExtDirectRequest {
 
 	private Map<String, Object> metadata;
 
+	@JsonIgnore
+	private boolean dataBound;
+
 	/**
 	 * @return name of the spring managed bean
 	 */
@@ -101,6 +106,20 @@ public class ExtDirectRequest {
 		this.metadata = metadata;
 	}
 
+	/**
+	 * @return true if the data has already been bound to the parameter types of the
+	 * target method while reading the request
+	 */
+	@JsonIgnore
+	public boolean isDataBound() {
+		return this.dataBound;
+	}
+
+	@JsonIgnore
+	public void setDataBound(boolean dataBound) {
+		this.dataBound = dataBound;
+	}
+
 	@Override
 	public String toString() {
 		return "ExtDirectRequest [action=" + this.action + ", method=" + this.method + ", type=" + this.type + ", tid="
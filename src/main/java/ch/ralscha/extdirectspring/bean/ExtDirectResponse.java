@@ -15,6 +15,8 @@
  */
 package ch.ralscha.extdirectspring.bean;
 
+import java.util.function.LongConsumer;
+
 import jakarta.servlet.http.HttpServletRequest;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -40,6 +42,12 @@ public class ExtDirectResponse extends BaseResponse {
 	@JsonIgnore
 	private Class<?> jsonView;
 
+	@JsonIgnore
+	private ExtDirectTiming timing;
+
+	@JsonIgnore
+	private LongConsumer sizeConsumer;
+
 	public ExtDirectResponse() {
 		// needs a default constructor for testing
 	}
@@ -95,6 +103,33 @@ public class ExtDirectResponse extends BaseResponse {
 		this.jsonView = jsonView;
 	}
 
+	/**
+	 * @return the phase durations of the call, null if the router does not measure them.
+	 * The router measures them if router metrics, the Server-Timing header or
+	 * {@code ExtRequestListener}s are configured. The durations are complete when
+	 * {@code ExtRequestListener.afterRequest} is called.
+	 */
+	public ExtDirectTiming getTiming() {
+		return this.timing;
+	}
+
+	public void setTiming(ExtDirectTiming timing) {
+		this.timing = timing;
+	}
+
+	/**
+	 * @return the consumer the router calls with the size in bytes of the serialized
+	 * response after it is written, null if the size is not needed
+	 */
+	@JsonIgnore
+	public LongConsumer getSizeConsumer() {
+		return this.sizeConsumer;
+	}
+
+	public void setSizeConsumer(LongConsumer sizeConsumer) {
+		this.sizeConsumer = sizeConsumer;
+	}
+
 	@Override
 	public String toString() {
 		return "ExtDirectResponse [tid=" + this.tid + ", action=" + this.action + ", method=" + this.method
@@ -15,12 +15,20 @@
  */
 package ch.ralscha.extdirectspring.bean;
 
+import java.io.IOException;
+
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 
 /**
- * Represents the response of a Ext Direct call with a raw (json) result. Internal class
+ * Represents the response of a Ext Direct call with a result that is serialized with a
+ * json view. The result is written with the writer of the view directly into the
+ * generator of the surrounding response, without an intermediate string. Internal class
  */
 @JsonInclude(Include.NON_NULL)
 public class ExtDirectResponseRaw extends BaseResponse {
@@ -31,15 +39,14 @@ public class ExtDirectResponseRaw extends BaseResponse {
 
 	private final String method;
 
-	@JsonRawValue
-	private final String result;
+	private final JsonSerializable result;
 
-	public ExtDirectResponseRaw(ExtDirectResponse response, String result) {
+	public ExtDirectResponseRaw(ExtDirectResponse response, ObjectWriter viewWriter) {
 		this.action = response.getAction();
 		this.method = response.getMethod();
 		this.tid = response.getTid();
 		setType(response.getType());
-		this.result = result;
+		this.result = new ViewResult(response.getResult(), viewWriter);
 	}
 
 	public int getTid() {
@@ -54,8 +61,32 @@ public class ExtDirectResponseRaw extends BaseResponse {
 		return this.method;
 	}
 
-	public String getResult() {
+	public JsonSerializable getResult() {
 		return this.result;
 	}
 
+	private static final class ViewResult implements JsonSerializable {
+
+		private final Object value;
+
+		private final ObjectWriter viewWriter;
+
+		ViewResult(Object value, ObjectWriter viewWriter) {
+			this.value = value;
+			this.viewWriter = viewWriter;
+		}
+
+		@Override
+		public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+			this.viewWriter.writeValue(gen, this.value);
+		}
+
+		@Override
+		public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+				throws IOException {
+			serialize(gen, serializers);
+		}
+
+	}
+
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.bean;
+
+/**
+ * Durations of the phases of one Ext Direct call in nanoseconds, measured with
+ * {@link System#nanoTime()}. The parse duration is the time it took to read the whole
+ * request body and is therefore the same for all calls of a batch. The invoke duration
+ * contains everything after the parameter resolution until the result of the method is
+ * available, including the wait for an asynchronous result and the exception handling.
+ */
+public class ExtDirectTiming {
+
+	private final long parseNanos;
+
+	private long resolveNanos;
+
+	private long invokeNanos;
+
+	public ExtDirectTiming(long parseNanos) {
+		this.parseNanos = parseNanos;
+	}
+
+	public long getParseNanos() {
+		return this.parseNanos;
+	}
+
+	public long getResolveNanos() {
+		return this.resolveNanos;
+	}
+
+	public void setResolveNanos(long resolveNanos) {
+		this.resolveNanos = resolveNanos;
+	}
+
+	public long getInvokeNanos() {
+		return this.invokeNanos;
+	}
+
+	public void setInvokeNanos(long invokeNanos) {
+		this.invokeNanos = invokeNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "ExtDirectTiming [parseNanos=" + this.parseNanos + ", resolveNanos=" + this.resolveNanos
+				+ ", invokeNanos=" + this.invokeNanos + "]";
+	}
+
+}
@@ -176,6 +176,7 @@ public class ApiController {
 			String requestPollingUrlsVar, String group, Boolean requestFullRouterUrl, String requestBaseRouterUrl,
 			HttpServletRequest request) {
 
+		ApiGenerationEvent event = ApiGenerationEvent.beginIfEnabled();
 		Configuration configuration = this.configurationService.getConfiguration();
 		String apiNs = requestApiNs != null ? requestApiNs : configuration.getApiNs();
 		String remotingApiVar = requestRemotingApiVar != null ? requestRemotingApiVar
@@ -201,8 +202,8 @@ public class ApiController {
 		requestUrlString = configuration.postProcessRequestUrl(request, requestUrlString);
 
 		String stripApiRegex = "api[^/]*?\\.js";
-		String routerUrl = requestUrlString.replaceFirst(stripApiRegex, "") + "router";
-		String basePollUrl = requestUrlString.replaceFirst(stripApiRegex, "") + "poll";
+		String baseUrl = requestUrlString.replaceFirst(stripApiRegex, "");
+		String routerUrl = baseUrl + "router";
 
 		if (!requestUrlString.contains("/api-debug-doc.js")) {
 			boolean debug = requestUrlString.contains("api-debug.js");
@@ -210,21 +211,55 @@ public class ApiController {
 			ApiCacheKey apiKey = new ApiCacheKey(apiNs, actionNs, remotingApiVar, pollingUrlsVar, routerUrl, group,
 					debug);
 			String apiString = this.apiCache.get(apiKey);
-			if (apiString == null) {
-				apiString = buildApiString(apiNs, actionNs, remotingApiVar, pollingUrlsVar, routerUrl, basePollUrl,
-						group, debug, false);
+			boolean cacheHit = apiString != null;
+			if (!cacheHit) {
+				apiString = buildApiString(apiNs, actionNs, remotingApiVar, pollingUrlsVar, routerUrl, baseUrl, group,
+						debug, false);
 				this.apiCache.put(apiKey, apiString);
 			}
+			commitApiGenerationEvent(event, group, "js", cacheHit);
 			return apiString;
 		}
 
-		return buildApiString(apiNs, actionNs, remotingApiVar, pollingUrlsVar, routerUrl, basePollUrl, group, true,
-				true);
+		String apiString = buildApiString(apiNs, actionNs, remotingApiVar, pollingUrlsVar, routerUrl, baseUrl, group,
+				true, true);
+		commitApiGenerationEvent(event, group, "doc", false);
+		return apiString;
+	}
+
+	private static void commitApiGenerationEvent(ApiGenerationEvent event, String group, String format,
+			boolean cacheHit) {
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.group = group;
+				event.format = format;
+				event.cacheHit = cacheHit;
+				event.commit();
+			}
+		}
+	}
 
+	/**
+	 * Replaces the trailing router in the router url with the path of the WebSocket
+	 * endpoint and changes the scheme of an absolute url to ws or wss.
+	 */
+	private static String buildWebSocketUrl(String routerUrl, String webSocketPath) {
+		String path = webSocketPath.startsWith("/") ? webSocketPath.substring(1) : webSocketPath;
+		String url = routerUrl.endsWith("router") ? routerUrl.substring(0, routerUrl.length() - "router".length())
+				: routerUrl;
+		url += path;
+		if (url.startsWith("https://")) {
+			return "wss://" + url.substring("https://".length());
+		}
+		if (url.startsWith("http://")) {
+			return "ws://" + url.substring("http://".length());
+		}
+		return url;
 	}
 
 	private String buildApiString(String apiNs, String actionNs, String remotingApiVar, String pollingUrlsVar,
-			String routerUrl, String basePollUrl, String group, boolean debug, boolean doc) {
+			String routerUrl, String baseUrl, String group, boolean debug, boolean doc) {
 
 		RemotingApi remotingApi = new RemotingApi(this.configurationService.getConfiguration().getProviderType(),
 				routerUrl, actionNs);
@@ -254,6 +289,11 @@ public class ApiController {
 			remotingApi.setBufferLimit(this.configurationService.getConfiguration().getBufferLimit());
 		}
 
+		String webSocketPath = this.configurationService.getConfiguration().getWebSocketPath();
+		if (StringUtils.hasText(webSocketPath)) {
+			remotingApi.setWebSocketUrl(buildWebSocketUrl(routerUrl, webSocketPath));
+		}
+
 		buildRemotingApi(remotingApi, group);
 
 		StringBuilder sb = new StringBuilder();
@@ -303,53 +343,64 @@ public class ApiController {
 
 		List<PollingProvider> pollingProviders = remotingApi.getPollingProviders();
 		if (!pollingProviders.isEmpty()) {
+			appendPollingUrls(sb, apiNs, pollingUrlsVar, baseUrl + "poll", pollingProviders, debug);
 
-			if (debug) {
-				sb.append("\n\n");
+			Configuration configuration = this.configurationService.getConfiguration();
+			if (configuration.getSsePollInterval() != null) {
+				appendPollingUrls(sb, apiNs, configuration.getSseUrlsVar(), baseUrl + "sse", pollingProviders, debug);
 			}
+		}
 
-			if (StringUtils.hasText(apiNs)) {
-				sb.append(apiNs).append(".");
-			}
-			sb.append(pollingUrlsVar).append(" = {");
+		return sb.toString();
+	}
+
+	private static void appendPollingUrls(StringBuilder sb, String apiNs, String urlsVar, String baseUrl,
+			List<PollingProvider> pollingProviders, boolean debug) {
+
+		if (debug) {
+			sb.append("\n\n");
+		}
+
+		if (StringUtils.hasText(apiNs)) {
+			sb.append(apiNs).append(".");
+		}
+		sb.append(urlsVar).append(" = {");
+		if (debug) {
+			sb.append("\n");
+		}
+
+		for (int i = 0; i < pollingProviders.size(); i++) {
 			if (debug) {
-				sb.append("\n");
+				sb.append("  ");
 			}
 
-			for (int i = 0; i < pollingProviders.size(); i++) {
+			sb.append("\"");
+			sb.append(pollingProviders.get(i).getEvent());
+			sb.append("\"");
+			sb.append(" : \"").append(baseUrl).append("/");
+			sb.append(pollingProviders.get(i).getBeanName());
+			sb.append("/");
+			sb.append(pollingProviders.get(i).getMethod());
+			sb.append("/");
+			sb.append(pollingProviders.get(i).getEvent());
+			sb.append("\"");
+			if (i < pollingProviders.size() - 1) {
+				sb.append(",");
 				if (debug) {
-					sb.append("  ");
+					sb.append("\n");
 				}
-
-				sb.append("\"");
-				sb.append(pollingProviders.get(i).getEvent());
-				sb.append("\"");
-				sb.append(" : \"").append(basePollUrl).append("/");
-				sb.append(pollingProviders.get(i).getBeanName());
-				sb.append("/");
-				sb.append(pollingProviders.get(i).getMethod());
-				sb.append("/");
-				sb.append(pollingProviders.get(i).getEvent());
-				sb.append("\"");
-				if (i < pollingProviders.size() - 1) {
-					sb.append(",");
-					if (debug) {
-						sb.append("\n");
-					}
-				}
-			}
-			if (debug) {
-				sb.append("\n");
 			}
-			sb.append("};");
 		}
-
-		return sb.toString();
+		if (debug) {
+			sb.append("\n");
+		}
+		sb.append("};");
 	}
 
 	private String buildApiJson(String requestApiNs, String requestActionNs, String requestRemotingApiVar,
 			String routerUrl, String group, boolean debug) {
 
+		ApiGenerationEvent event = ApiGenerationEvent.beginIfEnabled();
 		Configuration configuration = this.configurationService.getConfiguration();
 		String apiNs = requestApiNs != null ? requestApiNs : configuration.getApiNs();
 
@@ -370,7 +421,9 @@ public class ApiController {
 
 		buildRemotingApi(remotingApi, group);
 
-		return writeValueAsString(remotingApi, debug);
+		String apiString = writeValueAsString(remotingApi, debug);
+		commitApiGenerationEvent(event, group, "json", false);
+		return apiString;
 
 	}
 
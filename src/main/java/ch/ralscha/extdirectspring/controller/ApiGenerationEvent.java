@@ -0,0 +1,62 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for the creation of the remoting api by the
+ * {@link ApiController}.
+ */
+@Name("ch.ralscha.extdirectspring.ApiGeneration")
+@Label("Ext Direct API Generation")
+@Description("Creation of api.js or of the api in JSON format")
+@Category("Ext Direct")
+@StackTrace(false)
+final class ApiGenerationEvent extends Event {
+
+	private static final ApiGenerationEvent PROBE = new ApiGenerationEvent();
+
+	@Label("Group")
+	@Description("Requested api group, null for all methods")
+	String group;
+
+	@Label("Format")
+	@Description("js, json or doc")
+	String format;
+
+	@Label("Cache Hit")
+	@Description("True if the api was taken from the api cache")
+	boolean cacheHit;
+
+	/**
+	 * @return a started event or null if the event is not recorded
+	 */
+	static ApiGenerationEvent beginIfEnabled() {
+		if (!PROBE.isEnabled()) {
+			return null;
+		}
+		ApiGenerationEvent event = new ApiGenerationEvent();
+		event.begin();
+		return event;
+	}
+
+}
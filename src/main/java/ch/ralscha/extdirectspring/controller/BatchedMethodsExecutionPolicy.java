@@ -28,6 +28,11 @@ public enum BatchedMethodsExecutionPolicy {
 	/**
 	 * Executes methods concurrently in a thread pool
 	 */
-	CONCURRENT
+	CONCURRENT,
+
+	/**
+	 * Executes every method of a batch on its own virtual thread.
+	 */
+	VIRTUAL_THREADS
 
 }
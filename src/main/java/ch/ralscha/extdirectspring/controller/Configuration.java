@@ -57,6 +57,8 @@ public class Configuration {
 
 	private String pollingUrlsVar = "POLLING_URLS";
 
+	private String sseUrlsVar = "SSE_URLS";
+
 	private boolean fullRouterUrl = false;
 
 	private String baseRouterUrl = null;
@@ -77,12 +79,48 @@ public class Configuration {
 
 	private ExecutorService batchedMethodsExecutorService = null;
 
+	private Integer batchedMethodsTimeout = null;
+
 	private String providerType = "remoting";
 
 	private String frameDomain = null;
 
 	private String frameDomainScript = "<script type=\"text/javascript\">document.domain = '%s';</script>";
 
+	private boolean typedDataBinding = false;
+
+	private boolean incrementalBatchResponse = false;
+
+	private boolean coalesceIdempotentCalls = false;
+
+	private int outputBufferSegmentSize = 8192;
+
+	private int outputBufferPoolSize = 256;
+
+	private boolean directOutputBuffers = false;
+
+	private int sessionLockStripes = 256;
+
+	private boolean fairSessionLocks = false;
+
+	private Integer ssePollInterval = null;
+
+	private long sseTimeout = 30L * 60L * 1000L;
+
+	private Integer longPollTimeout = null;
+
+	private String webSocketPath = null;
+
+	private Integer webSocketPollInterval = null;
+
+	private int webSocketMaxConcurrentCalls = 16;
+
+	private int webSocketMaxSubscriptions = 16;
+
+	private boolean routerMetrics = false;
+
+	private boolean serverTiming = false;
+
 	private JsonHandler jsonHandler;
 
 	private ConversionService conversionService;
@@ -194,11 +232,16 @@ public class Configuration {
 
 	/**
 	 * If synchronizeOnSession is true, execution of all methods is synchronized on the
-	 * session object. To serialize parallel invocations from the same client and to
-	 * prevent concurrency issues if the server accesses global or session resources.
+	 * session. To serialize parallel invocations from the same client and to prevent
+	 * concurrency issues if the server accesses global or session resources.
 	 * <p>
 	 * Instead of globally enable this it's possible to set the flag on a per method basis
 	 * with {@link ExtDirectMethod#synchronizeOnSession()}.
+	 * <p>
+	 * The calls lock the striped locks of the
+	 * {@link ch.ralscha.extdirectspring.util.SessionLockManager} and not the session
+	 * mutex, see {@link #setSessionLockStripes(int)} and
+	 * {@link #setFairSessionLocks(boolean)}.
 	 * @param synchronizeOnSession new flag
 	 */
 	public void setSynchronizeOnSession(boolean synchronizeOnSession) {
@@ -361,6 +404,8 @@ public class Configuration {
 	 * server. {@link BatchedMethodsExecutionPolicy#SEQUENTIAL} executes methods one after
 	 * the other. {@link BatchedMethodsExecutionPolicy#CONCURRENT} executes methods
 	 * concurrently with the help of a thread pool.
+	 * {@link BatchedMethodsExecutionPolicy#VIRTUAL_THREADS} executes every method on its
+	 * own virtual thread.
 	 *
 	 * <p>
 	 * Default value is {@link BatchedMethodsExecutionPolicy#SEQUENTIAL}
@@ -384,6 +429,12 @@ public class Configuration {
 	 * {@link BatchedMethodsExecutionPolicy#CONCURRENT} but no
 	 * batchedMethodsExecutorService is specified the library creates a
 	 * {@link Executors#newFixedThreadPool(int)} with 5 threads.
+	 * <p>
+	 * If batchedMethodsExecutionPolicy is set to
+	 * {@link BatchedMethodsExecutionPolicy#VIRTUAL_THREADS} but no
+	 * batchedMethodsExecutorService is specified the library creates a
+	 * {@link Executors#newThreadPerTaskExecutor(java.util.concurrent.ThreadFactory)} that
+	 * starts a new virtual thread for every method.
 	 *
 	 * @see #setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy)
 	 * @param batchedMethodsExecutorService the new thread pool
@@ -392,6 +443,28 @@ public class Configuration {
 		this.batchedMethodsExecutorService = batchedMethodsExecutorService;
 	}
 
+	public Integer getBatchedMethodsTimeout() {
+		return this.batchedMethodsTimeout;
+	}
+
+	/**
+	 * Sets a deadline in milliseconds for batched requests executed with
+	 * {@link BatchedMethodsExecutionPolicy#CONCURRENT} or
+	 * {@link BatchedMethodsExecutionPolicy#VIRTUAL_THREADS}. Calls that are not finished
+	 * when the deadline expires are cancelled and answered with an exception response,
+	 * the results of all other calls of the batch are still sent to the client.
+	 * <p>
+	 * A shorter {@link ExtDirectMethod#timeout()} of a method takes precedence. The
+	 * deadline is not applied when {@link #setIncrementalBatchResponse(boolean)} is
+	 * enabled.
+	 * <p>
+	 * Defaults to null (no deadline).
+	 * @param batchedMethodsTimeout new deadline in milliseconds
+	 */
+	public void setBatchedMethodsTimeout(Integer batchedMethodsTimeout) {
+		this.batchedMethodsTimeout = batchedMethodsTimeout;
+	}
+
 	public String getProviderType() {
 		return this.providerType;
 	}
@@ -436,6 +509,326 @@ public class Configuration {
 		this.frameDomainScript = frameDomainScript;
 	}
 
+	public boolean isTypedDataBinding() {
+		return this.typedDataBinding;
+	}
+
+	/**
+	 * If typedDataBinding is true, the {@link RouterController} reads the data of SIMPLE,
+	 * SIMPLE_NAMED and STORE_MODIFY requests directly into the declared parameter types
+	 * of the target method while parsing the request body. This skips the intermediate
+	 * untyped Map/List tree and the second conversion pass through the
+	 * {@link ConversionService}.
+	 * <p>
+	 * Only parameters without annotations whose type is a String, a primitive or its
+	 * wrapper, a BigDecimal, a BigInteger, an enum, a bean or a collection/array of these
+	 * are bound this way. All other parameters, and requests whose data does not match
+	 * the method signature, are handled the usual way.
+	 * <p>
+	 * Default value is false
+	 * @param typedDataBinding new flag
+	 */
+	public void setTypedDataBinding(boolean typedDataBinding) {
+		this.typedDataBinding = typedDataBinding;
+	}
+
+	public boolean isIncrementalBatchResponse() {
+		return this.incrementalBatchResponse;
+	}
+
+	/**
+	 * If incrementalBatchResponse is true, the {@link RouterController} writes the
+	 * response of a batched request incrementally. The JSON array is opened up front and
+	 * every response is written and flushed into
+	 * {@link HttpServletResponse#getOutputStream()} as soon as the method has returned.
+	 * With {@link BatchedMethodsExecutionPolicy#CONCURRENT} and
+	 * {@link BatchedMethodsExecutionPolicy#VIRTUAL_THREADS} the responses are written in
+	 * completion order, the client matches them by their tid.
+	 * <p>
+	 * Like {@link #setStreamResponse(boolean)} the Content-Length header is not set.
+	 * Requests with only one method call are not affected by this flag. Methods that
+	 * return a CompletionStage or a DeferredResult are awaited on the thread that writes
+	 * the response.
+	 * <p>
+	 * Default value is false
+	 * @param incrementalBatchResponse new flag
+	 */
+	public void setIncrementalBatchResponse(boolean incrementalBatchResponse) {
+		this.incrementalBatchResponse = incrementalBatchResponse;
+	}
+
+	public boolean isCoalesceIdempotentCalls() {
+		return this.coalesceIdempotentCalls;
+	}
+
+	/**
+	 * If coalesceIdempotentCalls is true, concurrent calls of a method with
+	 * {@link ExtDirectMethod#idempotent()} set to true are collapsed across requests.
+	 * While a call with the same action, method and parameters is running, later calls
+	 * wait for it and share its result instead of invoking the method again. Parameters
+	 * are compared like the key of a
+	 * {@link ch.ralscha.extdirectspring.util.MethodResultCache}, the locale and the
+	 * principal are part of it.
+	 * <p>
+	 * Methods that return a DeferredResult and methods with a servlet request, response
+	 * or session parameter are never coalesced. The number of executed and collapsed
+	 * calls is available from {@link ConfigurationService#getMethodCallCoalescer()}.
+	 * <p>
+	 * Default value is false
+	 * @param coalesceIdempotentCalls new flag
+	 */
+	public void setCoalesceIdempotentCalls(boolean coalesceIdempotentCalls) {
+		this.coalesceIdempotentCalls = coalesceIdempotentCalls;
+	}
+
+	public int getOutputBufferSegmentSize() {
+		return this.outputBufferSegmentSize;
+	}
+
+	/**
+	 * Sets the size in bytes of one segment of the pooled buffers the
+	 * {@link RouterController} writes non streamed and multipart responses into before it
+	 * sets the Content-Length header.
+	 * <p>
+	 * Default value is 8192
+	 * @param outputBufferSegmentSize new segment size
+	 */
+	public void setOutputBufferSegmentSize(int outputBufferSegmentSize) {
+		this.outputBufferSegmentSize = outputBufferSegmentSize;
+	}
+
+	public int getOutputBufferPoolSize() {
+		return this.outputBufferPoolSize;
+	}
+
+	/**
+	 * Sets the maximum number of buffer segments that are kept for reuse. Together with
+	 * {@link #setOutputBufferSegmentSize(int)} this bounds the memory the pool retains.
+	 * Responses that need more segments allocate them and the surplus is dropped when the
+	 * response is written. 0 disables the reuse.
+	 * <p>
+	 * Default value is 256
+	 * @param outputBufferPoolSize new maximum number of pooled segments
+	 */
+	public void setOutputBufferPoolSize(int outputBufferPoolSize) {
+		this.outputBufferPoolSize = outputBufferPoolSize;
+	}
+
+	public boolean isDirectOutputBuffers() {
+		return this.directOutputBuffers;
+	}
+
+	/**
+	 * If directOutputBuffers is true the pooled buffer segments are allocated off-heap as
+	 * direct ByteBuffers. They are copied into the servlet output stream through a small
+	 * transfer array.
+	 * <p>
+	 * Default value is false
+	 * @param directOutputBuffers new flag
+	 */
+	public void setDirectOutputBuffers(boolean directOutputBuffers) {
+		this.directOutputBuffers = directOutputBuffers;
+	}
+
+	public int getSessionLockStripes() {
+		return this.sessionLockStripes;
+	}
+
+	/**
+	 * Sets the number of locks methods that are synchronized on the session are
+	 * distributed on. Sessions are mapped to a lock by their id, more stripes make it
+	 * less likely that two sessions wait for each other. The number is rounded up to the
+	 * next power of two.
+	 * <p>
+	 * Default value is 256
+	 * @param sessionLockStripes new number of locks
+	 */
+	public void setSessionLockStripes(int sessionLockStripes) {
+		this.sessionLockStripes = sessionLockStripes;
+	}
+
+	public boolean isFairSessionLocks() {
+		return this.fairSessionLocks;
+	}
+
+	/**
+	 * If fairSessionLocks is true, the locks of methods that are synchronized on the
+	 * session are granted in the order the calls arrived. Fair locks have a lower
+	 * throughput.
+	 * <p>
+	 * Default value is false
+	 * @param fairSessionLocks new flag
+	 */
+	public void setFairSessionLocks(boolean fairSessionLocks) {
+		this.fairSessionLocks = fairSessionLocks;
+	}
+
+	public Integer getSsePollInterval() {
+		return this.ssePollInterval;
+	}
+
+	/**
+	 * Enables the Server-Sent Events endpoint /sse/{beanName}/{method}/{event} and
+	 * publishes the urls of this endpoint in the SSE_URLS object, see
+	 * {@link #setSseUrlsVar(String)}. The POLLING_URLS object still points to the poll
+	 * endpoint. A client keeps one connection open, the POLL method is called with the
+	 * given delay in milliseconds between two calls and a response is only sent when it
+	 * differs from the previous one. Data can also be pushed with
+	 * {@link PollEventPublisher}.
+	 * <p>
+	 * The parameters of the method are resolved once when the connection is opened. A
+	 * method with a request, response or session parameter is only called once and the
+	 * connection is closed after the first response. Requests with another event than
+	 * the event of the POLL method are answered with 404.
+	 * <p>
+	 * Default value is null (disabled)
+	 * @param ssePollInterval new delay in milliseconds
+	 */
+	public void setSsePollInterval(Integer ssePollInterval) {
+		this.ssePollInterval = ssePollInterval;
+	}
+
+	public long getSseTimeout() {
+		return this.sseTimeout;
+	}
+
+	/**
+	 * Sets the time in milliseconds after which a Server-Sent Events connection is
+	 * closed. The client opens a new connection, which also releases connections of
+	 * clients that went away without closing them. The value replaces the async timeout
+	 * of the servlet container, which is usually much shorter.
+	 * <p>
+	 * Default value is 1800000 (30 minutes)
+	 * @param sseTimeout new timeout in milliseconds
+	 */
+	public void setSseTimeout(long sseTimeout) {
+		this.sseTimeout = sseTimeout;
+	}
+
+	public Integer getLongPollTimeout() {
+		return this.longPollTimeout;
+	}
+
+	/**
+	 * Enables long polling on the /poll endpoint. If a POLL method returns null the
+	 * request is held open until the event is signalled or published with
+	 * {@link PollEventPublisher} or the timeout in milliseconds expires. A signal calls
+	 * the POLL method again, the request is answered as soon as it returns data. When the
+	 * timeout expires the response contains no data, like a normal poll that returns
+	 * null. Results of POLL methods that complete asynchronously, of POLL methods with a
+	 * request, response or session parameter and of requests with another event than the
+	 * event of the POLL method are always sent immediately.
+	 * <p>
+	 * Default value is null (disabled)
+	 * @param longPollTimeout new timeout in milliseconds
+	 */
+	public void setLongPollTimeout(Integer longPollTimeout) {
+		this.longPollTimeout = longPollTimeout;
+	}
+
+	public String getWebSocketPath() {
+		return this.webSocketPath;
+	}
+
+	/**
+	 * Sets the path of the WebSocket endpoint, relative to the path of the router. The
+	 * endpoint is registered by importing {@link ExtDirectWebSocketConfiguration} and
+	 * needs spring-websocket on the classpath. If set, the remoting api contains the
+	 * property webSocketUrl.
+	 * <p>
+	 * Default value is null (no WebSocket endpoint)
+	 * @param webSocketPath new path, for example "websocket"
+	 */
+	public void setWebSocketPath(String webSocketPath) {
+		this.webSocketPath = webSocketPath;
+	}
+
+	public Integer getWebSocketPollInterval() {
+		return this.webSocketPollInterval;
+	}
+
+	/**
+	 * Sets the delay in milliseconds between two calls of a POLL method a WebSocket
+	 * client subscribed to. Like with Server-Sent Events a poll event is only sent when
+	 * it differs from the previous one. If null, the POLL method is only called when the
+	 * event is signalled with {@link PollEventPublisher#signal(String)}, published data
+	 * is always sent.
+	 * <p>
+	 * Default value is null
+	 * @param webSocketPollInterval new delay in milliseconds
+	 */
+	public void setWebSocketPollInterval(Integer webSocketPollInterval) {
+		this.webSocketPollInterval = webSocketPollInterval;
+	}
+
+	public int getWebSocketMaxConcurrentCalls() {
+		return this.webSocketMaxConcurrentCalls;
+	}
+
+	/**
+	 * Sets the maximum number of calls of one WebSocket connection that run at the same
+	 * time. When the limit is reached the connection stops reading messages until a
+	 * running call completes.
+	 * <p>
+	 * Default value is 16
+	 * @param webSocketMaxConcurrentCalls new maximum number of concurrent calls
+	 */
+	public void setWebSocketMaxConcurrentCalls(int webSocketMaxConcurrentCalls) {
+		this.webSocketMaxConcurrentCalls = webSocketMaxConcurrentCalls;
+	}
+
+	public int getWebSocketMaxSubscriptions() {
+		return this.webSocketMaxSubscriptions;
+	}
+
+	/**
+	 * Sets the maximum number of POLL methods one WebSocket connection subscribes to.
+	 * Further subscriptions of the connection are ignored.
+	 * <p>
+	 * Default value is 16
+	 * @param webSocketMaxSubscriptions new maximum number of subscriptions
+	 */
+	public void setWebSocketMaxSubscriptions(int webSocketMaxSubscriptions) {
+		this.webSocketMaxSubscriptions = webSocketMaxSubscriptions;
+	}
+
+	public boolean isRouterMetrics() {
+		return this.routerMetrics;
+	}
+
+	/**
+	 * If routerMetrics is true and there is no {@link RouterMetrics} bean, the router
+	 * records call counts, error counts and latencies per method, batch sizes, executor
+	 * wait times and response sizes in an {@link InMemoryRouterMetrics}. The snapshot is
+	 * available as JSON from /router-metrics.
+	 * <p>
+	 * Default value is false
+	 * @param routerMetrics new flag
+	 */
+	public void setRouterMetrics(boolean routerMetrics) {
+		this.routerMetrics = routerMetrics;
+	}
+
+	public boolean isServerTiming() {
+		return this.serverTiming;
+	}
+
+	/**
+	 * If serverTiming is true, the router adds a Server-Timing header to its responses
+	 * with the time spent parsing the request, resolving the parameters, invoking the
+	 * methods and serializing the response. The durations of the calls of a batch are
+	 * summed up. The serialize entry is missing if the response is streamed and responses
+	 * of incremental batches contain no header at all, because the header has to be
+	 * written before the body. Browser developer tools show the header in the timing tab
+	 * of the request.
+	 * <p>
+	 * Default value is false
+	 * @param serverTiming new flag
+	 */
+	public void setServerTiming(boolean serverTiming) {
+		this.serverTiming = serverTiming;
+	}
+
 	public String getApiNs() {
 		return this.apiNs;
 	}
@@ -492,6 +885,21 @@ public class Configuration {
 		this.pollingUrlsVar = pollingUrlsVar;
 	}
 
+	public String getSseUrlsVar() {
+		return this.sseUrlsVar;
+	}
+
+	/**
+	 * Changes the name of the Server-Sent Events urls object variable. The object is only
+	 * written when {@link #setSsePollInterval(Integer)} is set.
+	 * <p>
+	 * Defaults to SSE_URLS
+	 * @param sseUrlsVar new Server-Sent Events urls object variable name
+	 */
+	public void setSseUrlsVar(String sseUrlsVar) {
+		this.sseUrlsVar = sseUrlsVar;
+	}
+
 	public boolean isFullRouterUrl() {
 		return this.fullRouterUrl;
 	}
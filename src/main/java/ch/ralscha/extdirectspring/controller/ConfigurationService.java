@@ -30,7 +30,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.bind.support.WebArgumentResolver;
 
 import ch.ralscha.extdirectspring.util.JsonHandler;
+import ch.ralscha.extdirectspring.util.MethodCallCoalescer;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+import ch.ralscha.extdirectspring.util.OutputBufferPool;
 import ch.ralscha.extdirectspring.util.ParametersResolver;
+import ch.ralscha.extdirectspring.util.SessionLockManager;
+import ch.ralscha.extdirectspring.util.TypedDataReader;
 
 @Service
 public class ConfigurationService implements InitializingBean, DisposableBean {
@@ -47,8 +52,22 @@ public class ConfigurationService implements InitializingBean, DisposableBean {
 	@Autowired(required = false)
 	private RouterExceptionHandler routerExceptionHandler;
 
+	@Autowired(required = false)
+	private RouterMetrics routerMetrics;
+
+	@Autowired
+	private MethodInfoCache methodInfoCache;
+
 	private ParametersResolver parametersResolver;
 
+	private TypedDataReader typedDataReader;
+
+	private MethodCallCoalescer methodCallCoalescer;
+
+	private OutputBufferPool outputBufferPool;
+
+	private SessionLockManager sessionLockManager;
+
 	@Override
 	public void afterPropertiesSet() {
 
@@ -68,10 +87,19 @@ public class ConfigurationService implements InitializingBean, DisposableBean {
 			this.routerExceptionHandler = new DefaultRouterExceptionHandler(this);
 		}
 
+		if (this.routerMetrics == null && this.configuration.isRouterMetrics()) {
+			this.routerMetrics = new InMemoryRouterMetrics();
+		}
+
 		if (this.configuration.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.CONCURRENT
 				&& this.configuration.getBatchedMethodsExecutorService() == null) {
 			this.configuration.setBatchedMethodsExecutorService(Executors.newFixedThreadPool(5));
 		}
+		else if (this.configuration.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.VIRTUAL_THREADS
+				&& this.configuration.getBatchedMethodsExecutorService() == null) {
+			this.configuration.setBatchedMethodsExecutorService(Executors
+				.newThreadPerTaskExecutor(Thread.ofVirtual().name("extdirectspring-batch-", 0).factory()));
+		}
 
 		if (this.configuration.getConversionService() == null) {
 			Map<String, ConversionService> conversionServices = this.context.getBeansOfType(ConversionService.class);
@@ -102,6 +130,26 @@ public class ConfigurationService implements InitializingBean, DisposableBean {
 		Collection<WebArgumentResolver> webResolvers = this.context.getBeansOfType(WebArgumentResolver.class).values();
 		this.parametersResolver = new ParametersResolver(this.configuration.getConversionService(), this.jsonHandler,
 				webResolvers);
+
+		if (this.configuration.isTypedDataBinding()) {
+			this.typedDataReader = new TypedDataReader(this.jsonHandler, this.methodInfoCache);
+		}
+		else {
+			this.typedDataReader = null;
+		}
+
+		this.outputBufferPool = new OutputBufferPool(this.configuration.getOutputBufferSegmentSize(),
+				this.configuration.getOutputBufferPoolSize(), this.configuration.isDirectOutputBuffers());
+
+		this.sessionLockManager = new SessionLockManager(this.configuration.getSessionLockStripes(),
+				this.configuration.isFairSessionLocks());
+
+		if (this.configuration.isCoalesceIdempotentCalls()) {
+			this.methodCallCoalescer = new MethodCallCoalescer();
+		}
+		else {
+			this.methodCallCoalescer = null;
+		}
 	}
 
 	@Override
@@ -127,8 +175,41 @@ public class ConfigurationService implements InitializingBean, DisposableBean {
 		return this.parametersResolver;
 	}
 
+	/**
+	 * @return the reader for typed data binding, null if
+	 * {@link Configuration#isTypedDataBinding()} is false
+	 */
+	public TypedDataReader getTypedDataReader() {
+		return this.typedDataReader;
+	}
+
+	/**
+	 * @return the coalescer of concurrent idempotent calls, null if
+	 * {@link Configuration#isCoalesceIdempotentCalls()} is false
+	 */
+	public MethodCallCoalescer getMethodCallCoalescer() {
+		return this.methodCallCoalescer;
+	}
+
+	public OutputBufferPool getOutputBufferPool() {
+		return this.outputBufferPool;
+	}
+
+	public SessionLockManager getSessionLockManager() {
+		return this.sessionLockManager;
+	}
+
 	public RouterExceptionHandler getRouterExceptionHandler() {
 		return this.routerExceptionHandler;
 	}
 
+	/**
+	 * @return the {@link RouterMetrics} bean, an {@link InMemoryRouterMetrics} if
+	 * {@link Configuration#isRouterMetrics()} is true or null if the router is not
+	 * measured
+	 */
+	public RouterMetrics getRouterMetrics() {
+		return this.routerMetrics;
+	}
+
 }
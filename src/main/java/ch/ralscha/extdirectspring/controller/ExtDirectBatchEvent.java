@@ -0,0 +1,62 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a batch of Ext Direct calls. The duration spans the
+ * request from reading the body until all responses are written.
+ */
+@Name("ch.ralscha.extdirectspring.Batch")
+@Label("Ext Direct Batch")
+@Description("Request to the router with more than one Ext Direct call")
+@Category("Ext Direct")
+@StackTrace(false)
+final class ExtDirectBatchEvent extends Event {
+
+	private static final ExtDirectBatchEvent PROBE = new ExtDirectBatchEvent();
+
+	@Label("Policy")
+	@Description("Execution policy of the batched calls")
+	String policy;
+
+	@Label("Incremental")
+	@Description("True if each response is written as soon as it is complete")
+	boolean incremental;
+
+	@Label("Size")
+	@Description("Number of calls in the batch")
+	int size;
+
+	/**
+	 * @return a started event or null if the event is not recorded
+	 */
+	static ExtDirectBatchEvent beginIfEnabled() {
+		if (!PROBE.isEnabled()) {
+			return null;
+		}
+		ExtDirectBatchEvent event = new ExtDirectBatchEvent();
+		event.begin();
+		return event;
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a call of an Ext Direct method. The duration spans the
+ * call from the parameter resolution until the result is available.
+ */
+@Name("ch.ralscha.extdirectspring.Call")
+@Label("Ext Direct Call")
+@Description("Call of an Ext Direct method")
+@Category("Ext Direct")
+@StackTrace(false)
+final class ExtDirectCallEvent extends Event {
+
+	private static final ExtDirectCallEvent PROBE = new ExtDirectCallEvent();
+
+	@Label("Action")
+	String action;
+
+	@Label("Method")
+	String method;
+
+	@Label("Transaction Id")
+	int tid;
+
+	@Label("Type")
+	@Description("Type of the response, exception if the method failed")
+	String type;
+
+	@Label("Result Size")
+	@Description("Size of the serialized response of the call, -1 if a timeout response replaced it")
+	@DataAmount
+	long resultSize;
+
+	/**
+	 * @return a started event or null if the event is not recorded, so that the router
+	 * does not allocate anything when no recording is running
+	 */
+	static ExtDirectCallEvent beginIfEnabled() {
+		if (!PROBE.isEnabled()) {
+			return null;
+		}
+		ExtDirectCallEvent event = new ExtDirectCallEvent();
+		event.begin();
+		return event;
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+/**
+ * Registers the {@link ExtDirectWebSocketHandler} under the path configured with
+ * {@link Configuration#setWebSocketPath(String)}. The class is not picked up by the
+ * component scan, so applications without spring-websocket on the classpath are not
+ * affected. Import it to enable the WebSocket transport.
+ * <p>
+ *
+ * <pre>
+ *   {@literal @}Configuration
+ *   {@literal @}ComponentScan(basePackageClasses=ExtDirectSpring.class)
+ *   {@literal @}Import(ExtDirectWebSocketConfiguration.class)
+ *   public class Application { ... }
+ * </pre>
+ */
+@EnableWebSocket
+public class ExtDirectWebSocketConfiguration implements WebSocketConfigurer, DisposableBean {
+
+	private final ConfigurationService configurationService;
+
+	private final ExtDirectWebSocketHandler webSocketHandler;
+
+	@Autowired
+	public ExtDirectWebSocketConfiguration(RouterController routerController, ConfigurationService configurationService,
+			MethodInfoCache methodInfoCache, PollEventPublisher pollEventPublisher) {
+		this.configurationService = configurationService;
+		this.webSocketHandler = new ExtDirectWebSocketHandler(routerController, configurationService, methodInfoCache,
+				pollEventPublisher);
+	}
+
+	@Override
+	public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+		String webSocketPath = this.configurationService.getConfiguration().getWebSocketPath();
+		if (StringUtils.hasText(webSocketPath)) {
+			registry
+				.addHandler(this.webSocketHandler, webSocketPath.startsWith("/") ? webSocketPath : "/" + webSocketPath)
+				.addInterceptors(new ExtDirectWebSocketHandler.HttpSessionInterceptor());
+		}
+	}
+
+	public ExtDirectWebSocketHandler getWebSocketHandler() {
+		return this.webSocketHandler;
+	}
+
+	@Override
+	public void destroy() {
+		this.webSocketHandler.destroy();
+	}
+
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import jakarta.servlet.http.HttpSession;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponseRaw;
+import ch.ralscha.extdirectspring.util.JsonHandler;
+import ch.ralscha.extdirectspring.util.MethodInfo;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+import ch.ralscha.extdirectspring.util.ParametersResolver;
+import ch.ralscha.extdirectspring.util.TypedDataReader;
+
+/**
+ * WebSocket transport for Ext Direct calls and poll events. A text message contains one
+ * {@link ExtDirectRequest} or an array of requests, exactly like the body of a request to
+ * /router. Every call is answered with its own {@link ExtDirectResponse} message as soon
+ * as the method returns, the client matches the responses by their tid.
+ * <p>
+ * A request with the type "poll" and the action and method of a POLL method subscribes
+ * the connection to the event of the method. The connection then receives
+ * {@link ExtDirectPollResponse} messages, see
+ * {@link Configuration#setWebSocketPollInterval(Integer)} and {@link PollEventPublisher}.
+ * Repeated subscriptions to the same method are ignored and a connection subscribes to at
+ * most {@link Configuration#setWebSocketMaxSubscriptions(int)} methods.
+ * <p>
+ * There is no servlet request for a message, parameters of type
+ * {@link jakarta.servlet.http.HttpServletRequest} and
+ * {@link jakarta.servlet.http.HttpServletResponse} are null and request parameters,
+ * headers and cookies resolve to their default values. Parameters of type
+ * {@link HttpSession} and {@link Principal} resolve to the HTTP session of the handshake
+ * request and the principal of the connection, and methods are synchronized on this
+ * session like calls to /router. {@link ExtRequestListener}s are called with a null
+ * request and response. When the HTTP session is invalidated the connection is closed,
+ * the client reconnects with a new session.
+ * <p>
+ * At most {@link Configuration#setWebSocketMaxConcurrentCalls(int)} calls of a connection
+ * run at the same time, further messages are only read when a call completes.
+ *
+ * @see ExtDirectWebSocketConfiguration
+ */
+public class ExtDirectWebSocketHandler extends TextWebSocketHandler implements DisposableBean {
+
+	private static final Log log = LogFactory.getLog(ExtDirectWebSocketHandler.class);
+
+	private static final int SEND_TIME_LIMIT = 10_000;
+
+	private static final int SEND_BUFFER_SIZE_LIMIT = 512 * 1024;
+
+	private static final CloseStatus SESSION_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("HTTP session expired");
+
+	/**
+	 * Name of the WebSocket session attribute that holds the HTTP session of the
+	 * handshake request, see {@link HttpSessionInterceptor}
+	 */
+	static final String HTTP_SESSION_ATTRIBUTE = ExtDirectWebSocketHandler.class.getName() + ".HTTP_SESSION";
+
+	private final RouterController routerController;
+
+	private final ConfigurationService configurationService;
+
+	private final MethodInfoCache methodInfoCache;
+
+	private final PollEventPublisher pollEventPublisher;
+
+	private final ConcurrentMap<String, Connection> connections = new ConcurrentHashMap<>();
+
+	private final ExecutorService executor = Executors
+		.newThreadPerTaskExecutor(Thread.ofVirtual().name("extdirectspring-websocket-", 0).factory());
+
+	public ExtDirectWebSocketHandler(RouterController routerController, ConfigurationService configurationService,
+			MethodInfoCache methodInfoCache, PollEventPublisher pollEventPublisher) {
+		this.routerController = routerController;
+		this.configurationService = configurationService;
+		this.methodInfoCache = methodInfoCache;
+		this.pollEventPublisher = pollEventPublisher;
+	}
+
+	@Override
+	public void afterConnectionEstablished(WebSocketSession session) {
+		this.connections.put(session.getId(),
+				new Connection(
+						new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT, SEND_BUFFER_SIZE_LIMIT),
+						(HttpSession) session.getAttributes().get(HTTP_SESSION_ATTRIBUTE), session.getPrincipal(),
+						this.configurationService.getConfiguration().getWebSocketMaxConcurrentCalls(),
+						this.configurationService.getConfiguration().getWebSocketMaxSubscriptions()));
+	}
+
+	@Override
+	protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+		Connection connection = this.connections.get(session.getId());
+		if (connection == null) {
+			return;
+		}
+		if (!connection.isHttpSessionValid()) {
+			connection.close(SESSION_EXPIRED);
+			return;
+		}
+
+		List<ExtDirectRequest> directRequests = readDirectRequests(new ByteArrayInputStream(message.asBytes()));
+		if (directRequests == null) {
+			log.error("Invalid Ext Direct request on WebSocket connection " + session.getId());
+			return;
+		}
+
+		Locale locale = getLocale(session);
+		for (ExtDirectRequest directRequest : directRequests) {
+			if ("poll".equals(directRequest.getType())) {
+				subscribe(connection, directRequest, locale);
+			}
+			else {
+				try {
+					connection.acquireCall();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				CompletableFuture
+					.supplyAsync(() -> this.routerController.handleMethodCall(directRequest, null, null,
+							connection.httpSession, connection.principal, locale), this.executor)
+					.thenCompose(Function.identity())
+					.whenComplete((directResponse, ex) -> {
+						connection.releaseCall();
+						if (directResponse != null) {
+							connection.send(directResponse);
+						}
+						else {
+							log.error("Error calling method: " + directRequest.getMethod(), ex);
+						}
+					});
+			}
+		}
+	}
+
+	@Override
+	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+		Connection connection = this.connections.remove(session.getId());
+		if (connection != null) {
+			connection.cancelSubscriptions();
+		}
+	}
+
+	/**
+	 * @return the number of open connections
+	 */
+	public int getConnectionCount() {
+		return this.connections.size();
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+		for (Connection connection : this.connections.values()) {
+			connection.close();
+		}
+		this.connections.clear();
+	}
+
+	private List<ExtDirectRequest> readDirectRequests(InputStream is) {
+		TypedDataReader typedDataReader = this.configurationService.getTypedDataReader();
+		if (typedDataReader != null) {
+			return typedDataReader.readDirectRequests(is);
+		}
+		return this.configurationService.getJsonHandler().readDirectRequests(is);
+	}
+
+	private void subscribe(Connection connection, ExtDirectRequest directRequest, Locale locale) {
+		String beanName = directRequest.getAction();
+		String method = directRequest.getMethod();
+		MethodInfo methodInfo = this.methodInfoCache.get(beanName, method);
+
+		if (methodInfo == null || methodInfo.getPollingProvider() == null) {
+			log.error("Error invoking method '" + beanName + "." + method + "'. Method or Bean not found");
+			ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+			this.routerController.handleMethodNotFoundError(directPollResponse, beanName, method);
+			connection.send(directPollResponse);
+			return;
+		}
+
+		String subscriptionKey = beanName + "." + method;
+		if (connection.hasSubscription(subscriptionKey)) {
+			return;
+		}
+		if (connection.getSubscriptionCount() >= connection.maxSubscriptions) {
+			log.error("WebSocket connection " + connection.session.getId() + " exceeds the maximum of "
+					+ connection.maxSubscriptions + " subscriptions, '" + subscriptionKey + "' is ignored");
+			return;
+		}
+
+		String event = methodInfo.getPollingProvider().getEvent();
+		Object[] parameters;
+		try {
+			ParametersResolver parametersResolver = this.configurationService.getParametersResolver();
+			parameters = parametersResolver.prepareParameters(null, null, locale, methodInfo);
+			parametersResolver.resolveSessionParameters(parameters, methodInfo, connection.httpSession,
+					connection.principal);
+		}
+		catch (Exception e) {
+			log.error("Error preparing the parameters of method '" + beanName + "." + method + "'", e);
+			return;
+		}
+
+		Integer interval = this.configurationService.getConfiguration().getWebSocketPollInterval();
+		connection.addSubscription(subscriptionKey, this.pollEventPublisher.subscribe(event, connection, () -> {
+			if (!connection.isHttpSessionValid()) {
+				connection.close(SESSION_EXPIRED);
+				throw new IllegalStateException(
+						"HTTP session of WebSocket connection " + connection.session.getId() + " expired");
+			}
+			ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+			directPollResponse.setName(event);
+			Class<?> jsonView = this.routerController.invokePollMethod(directPollResponse, beanName, method, methodInfo,
+					parameters, connection.httpSession, null);
+			return this.pollEventPublisher.writeFrame(directPollResponse, jsonView);
+		}, interval != null ? interval : 0));
+	}
+
+	private static Locale getLocale(WebSocketSession session) {
+		List<Locale> locales = session.getHandshakeHeaders().getAcceptLanguageAsLocales();
+		return !locales.isEmpty() ? locales.get(0) : Locale.getDefault();
+	}
+
+	private byte[] writeDirectResponse(ExtDirectResponse directResponse) throws JsonProcessingException {
+		JsonHandler jsonHandler = this.configurationService.getJsonHandler();
+		Class<?> jsonView = directResponse.getJsonView();
+		byte[] json;
+		if (jsonView == null) {
+			json = jsonHandler.getMapper().writeValueAsBytes(directResponse);
+		}
+		else {
+			json = jsonHandler.getMapper()
+				.writeValueAsBytes(new ExtDirectResponseRaw(directResponse, jsonHandler.getWriterWithView(jsonView)));
+		}
+		if (directResponse.getSizeConsumer() != null) {
+			directResponse.getSizeConsumer().accept(json.length);
+		}
+		return json;
+	}
+
+	/**
+	 * Stores the HTTP session of the handshake request in the attributes of the WebSocket
+	 * session, in addition to the session id and the session attributes copied by
+	 * {@link HttpSessionHandshakeInterceptor}.
+	 */
+	static class HttpSessionInterceptor extends HttpSessionHandshakeInterceptor {
+
+		@Override
+		public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+				WebSocketHandler wsHandler, Map<String, Object> attributes) throws Exception {
+			if (request instanceof ServletServerHttpRequest) {
+				HttpSession httpSession = ((ServletServerHttpRequest) request).getServletRequest().getSession(false);
+				if (httpSession != null) {
+					attributes.put(HTTP_SESSION_ATTRIBUTE, httpSession);
+				}
+			}
+			return super.beforeHandshake(request, response, wsHandler, attributes);
+		}
+
+	}
+
+	private final class Connection implements PollEventPublisher.FrameSender {
+
+		private final WebSocketSession session;
+
+		private final HttpSession httpSession;
+
+		private final Principal principal;
+
+		private final Semaphore calls;
+
+		private final int maxSubscriptions;
+
+		private final ConcurrentMap<String, Runnable> subscriptions = new ConcurrentHashMap<>();
+
+		Connection(WebSocketSession session, HttpSession httpSession, Principal principal, int maxConcurrentCalls,
+				int maxSubscriptions) {
+			this.session = session;
+			this.httpSession = httpSession;
+			this.principal = principal;
+			this.calls = new Semaphore(maxConcurrentCalls);
+			this.maxSubscriptions = maxSubscriptions;
+		}
+
+		/**
+		 * @return false if the HTTP session of the handshake request has been invalidated
+		 */
+		boolean isHttpSessionValid() {
+			if (this.httpSession == null) {
+				return true;
+			}
+			try {
+				this.httpSession.getCreationTime();
+				return true;
+			}
+			catch (IllegalStateException e) {
+				return false;
+			}
+		}
+
+		void acquireCall() throws InterruptedException {
+			this.calls.acquire();
+		}
+
+		void releaseCall() {
+			this.calls.release();
+		}
+
+		void send(ExtDirectResponse directResponse) {
+			try {
+				this.session.sendMessage(new TextMessage(writeDirectResponse(directResponse)));
+			}
+			catch (IOException e) {
+				log.error("Error sending response of tid " + directResponse.getTid(), e);
+			}
+		}
+
+		void send(ExtDirectPollResponse directPollResponse) {
+			try {
+				send(ExtDirectWebSocketHandler.this.pollEventPublisher.writeFrame(directPollResponse, null));
+			}
+			catch (IOException e) {
+				log.error("Error sending poll response", e);
+			}
+		}
+
+		@Override
+		public void send(String frame) throws IOException {
+			this.session.sendMessage(new TextMessage(frame));
+		}
+
+		@Override
+		public void close() {
+			close(CloseStatus.GOING_AWAY);
+		}
+
+		void close(CloseStatus status) {
+			try {
+				this.session.close(status);
+			}
+			catch (IOException e) {
+				log.debug("Error closing WebSocket connection " + this.session.getId(), e);
+			}
+		}
+
+		boolean hasSubscription(String key) {
+			return this.subscriptions.containsKey(key);
+		}
+
+		int getSubscriptionCount() {
+			return this.subscriptions.size();
+		}
+
+		void addSubscription(String key, Runnable cancel) {
+			Runnable previous = this.subscriptions.put(key, cancel);
+			if (previous != null) {
+				previous.run();
+			}
+		}
+
+		void cancelSubscriptions() {
+			for (String key : this.subscriptions.keySet()) {
+				Runnable cancel = this.subscriptions.remove(key);
+				if (cancel != null) {
+					cancel.run();
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.ralscha.extdirectspring.util.Histogram;
+
+/**
+ * {@link RouterMetrics} that keeps the measurements in memory. The snapshot is available
+ * as JSON from {@link RouterMetricsController}.
+ */
+public class InMemoryRouterMetrics implements RouterMetrics {
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+	private final Histogram batchSizes = new Histogram();
+
+	private final Histogram executorWaits = new Histogram();
+
+	private final Histogram responseSizes = new Histogram();
+
+	private final ConcurrentMap<String, Histogram> phases = new ConcurrentHashMap<>();
+
+	@Override
+	public void recordMethodCall(String action, String method, long durationNanos, boolean error) {
+		String key = action + "." + method;
+		MethodMetrics methodMetrics = this.methods.get(key);
+		if (methodMetrics == null) {
+			methodMetrics = this.methods.computeIfAbsent(key, k -> new MethodMetrics());
+		}
+		methodMetrics.latencies.record(durationNanos);
+		if (error) {
+			methodMetrics.errors.increment();
+		}
+	}
+
+	@Override
+	public void recordBatchSize(int size) {
+		this.batchSizes.record(size);
+	}
+
+	@Override
+	public void recordExecutorWait(long waitNanos) {
+		this.executorWaits.record(waitNanos);
+	}
+
+	@Override
+	public void recordResponseSize(long bytes) {
+		this.responseSizes.record(bytes);
+	}
+
+	@Override
+	public void recordPhase(String phase, long durationNanos) {
+		this.phases.computeIfAbsent(phase, k -> new Histogram()).record(durationNanos);
+	}
+
+	/**
+	 * @return the latency histogram of the method in nanoseconds, null if the method has
+	 * not been called
+	 */
+	public Histogram getLatencies(String action, String method) {
+		MethodMetrics methodMetrics = this.methods.get(action + "." + method);
+		return methodMetrics != null ? methodMetrics.latencies : null;
+	}
+
+	/**
+	 * @return the number of calls of the method that returned an exception
+	 */
+	public long getErrorCount(String action, String method) {
+		MethodMetrics methodMetrics = this.methods.get(action + "." + method);
+		return methodMetrics != null ? methodMetrics.errors.sum() : 0;
+	}
+
+	public Histogram getBatchSizes() {
+		return this.batchSizes;
+	}
+
+	/**
+	 * @return the histogram of the times batched calls waited for the executor in
+	 * nanoseconds
+	 */
+	public Histogram getExecutorWaits() {
+		return this.executorWaits;
+	}
+
+	public Histogram getResponseSizes() {
+		return this.responseSizes;
+	}
+
+	/**
+	 * @return the histogram of the durations of the phase in nanoseconds, null if the
+	 * phase has not been recorded
+	 */
+	public Histogram getPhase(String phase) {
+		return this.phases.get(phase);
+	}
+
+	/**
+	 * @return all measurements, latencies and wait times in milliseconds
+	 */
+	public Map<String, Object> getSnapshot() {
+		Map<String, Object> methodSnapshots = new TreeMap<>();
+		for (Map.Entry<String, MethodMetrics> entry : this.methods.entrySet()) {
+			Map<String, Object> methodSnapshot = summarize(entry.getValue().latencies, NANOS_PER_MILLI);
+			methodSnapshot.put("errors", entry.getValue().errors.sum());
+			methodSnapshots.put(entry.getKey(), methodSnapshot);
+		}
+
+		Map<String, Object> snapshot = new LinkedHashMap<>();
+		snapshot.put("methods", methodSnapshots);
+		snapshot.put("batchSize", summarize(this.batchSizes, 1));
+		snapshot.put("executorWait", summarize(this.executorWaits, NANOS_PER_MILLI));
+		snapshot.put("responseSize", summarize(this.responseSizes, 1));
+
+		Map<String, Object> phaseSnapshots = new TreeMap<>();
+		for (Map.Entry<String, Histogram> entry : this.phases.entrySet()) {
+			phaseSnapshots.put(entry.getKey(), summarize(entry.getValue(), NANOS_PER_MILLI));
+		}
+		snapshot.put("phases", phaseSnapshots);
+		return snapshot;
+	}
+
+	private static Map<String, Object> summarize(Histogram histogram, double divisor) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		long count = histogram.getCount();
+		summary.put("count", count);
+		summary.put("mean", count > 0 ? histogram.getSum() / divisor / count : 0);
+		summary.put("p50", histogram.getValueAtPercentile(50) / divisor);
+		summary.put("p95", histogram.getValueAtPercentile(95) / divisor);
+		summary.put("p99", histogram.getValueAtPercentile(99) / divisor);
+		summary.put("max", histogram.getMax() / divisor);
+		return summary;
+	}
+
+	private static final class MethodMetrics {
+
+		private final Histogram latencies = new Histogram();
+
+		private final LongAdder errors = new LongAdder();
+
+	}
+
+}
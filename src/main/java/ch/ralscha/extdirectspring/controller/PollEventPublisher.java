@@ -0,0 +1,482 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.util.JsonHandler;
+import ch.ralscha.extdirectspring.util.MethodCallKey;
+
+/**
+ * Manages the Server-Sent Events connections of POLL methods, see
+ * {@link Configuration#setSsePollInterval(Integer)}. Every connection evaluates its POLL
+ * method periodically and sends an {@link ExtDirectPollResponse} frame only when the
+ * response differs from the last frame sent on this connection.
+ * <p>
+ * Also holds the long poll requests, see {@link Configuration#setLongPollTimeout(Integer)},
+ * and refreshes the shared results of POLL methods annotated with
+ * {@link ch.ralscha.extdirectspring.annotation.ExtDirectSharedPoll}.
+ * <p>
+ * The application can push data to all clients that listen to an event with
+ * {@link #publish(String, Object)} or let them call their POLL method again with
+ * {@link #signal(String)}.
+ */
+@Service
+public class PollEventPublisher implements DisposableBean {
+
+	private static final Log log = LogFactory.getLog(PollEventPublisher.class);
+
+	private final ConcurrentMap<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Set<BiConsumer<ExtDirectPollResponse, Class<?>>>> waiters =
+			new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, AtomicLong> eventVersions = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<MethodCallKey, SharedPollResult> sharedPollResults = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService scheduler = Executors
+		.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("extdirectspring-sse").daemon().factory());
+
+	private final ExecutorService pollExecutor = Executors
+		.newThreadPerTaskExecutor(Thread.ofVirtual().name("extdirectspring-sse-poll-", 0).factory());
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	/**
+	 * Sends the data to all clients that are connected to the given event.
+	 * @param event name of the event
+	 * @param data the data of the poll response
+	 */
+	public void publish(String event, Object data) {
+		publish(event, data, null);
+	}
+
+	/**
+	 * Sends the data serialized with the json view to all clients that are connected to
+	 * the given event.
+	 * @param event name of the event
+	 * @param data the data of the poll response
+	 * @param jsonView the json view, may be null
+	 */
+	public void publish(String event, Object data, Class<?> jsonView) {
+		ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+		directPollResponse.setName(event);
+		directPollResponse.setData(data);
+
+		incrementEventVersion(event);
+		notifyWaiters(event, directPollResponse, jsonView);
+
+		Set<Subscription> eventSubscriptions = this.subscriptions.get(event);
+		if (eventSubscriptions == null || eventSubscriptions.isEmpty()) {
+			return;
+		}
+
+		String frame;
+		try {
+			frame = writeFrame(directPollResponse, jsonView);
+		}
+		catch (JsonProcessingException e) {
+			log.error("Error serializing data of event '" + event + "'", e);
+			return;
+		}
+
+		for (Subscription subscription : eventSubscriptions) {
+			subscription.send(frame);
+		}
+	}
+
+	/**
+	 * Tells all clients that are connected to the given event that new data is available.
+	 * Waiting long poll requests and Server-Sent Events connections call their POLL
+	 * method again right away.
+	 * @param event name of the event
+	 */
+	public void signal(String event) {
+		incrementEventVersion(event);
+		notifyWaiters(event, null, null);
+
+		Set<Subscription> eventSubscriptions = this.subscriptions.get(event);
+		if (eventSubscriptions != null) {
+			for (Subscription subscription : eventSubscriptions) {
+				subscription.schedulePoll();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of open connections of the given event
+	 */
+	public int getSubscriberCount(String event) {
+		Set<Subscription> eventSubscriptions = this.subscriptions.get(event);
+		return eventSubscriptions != null ? eventSubscriptions.size() : 0;
+	}
+
+	String writeFrame(ExtDirectPollResponse directPollResponse, Class<?> jsonView) throws JsonProcessingException {
+		JsonHandler jsonHandler = this.configurationService.getJsonHandler();
+		if (jsonView == null) {
+			return jsonHandler.getMapper().writeValueAsString(directPollResponse);
+		}
+		return jsonHandler.getWriterWithView(jsonView).writeValueAsString(directPollResponse);
+	}
+
+	/**
+	 * Registers the Server-Sent Events connection and evaluates the poll callable
+	 * immediately and then with the given delay between two evaluations.
+	 * @param poll returns the serialized poll response
+	 */
+	void subscribe(String event, SseEmitter emitter, Callable<String> poll, long interval) {
+		Runnable cancel = subscribe(event, new FrameSender() {
+			@Override
+			public void send(String frame) throws IOException {
+				emitter.send(SseEmitter.event().data(frame));
+			}
+
+			@Override
+			public void close() {
+				emitter.complete();
+			}
+		}, poll, interval);
+
+		emitter.onCompletion(cancel);
+		emitter.onTimeout(cancel);
+		emitter.onError(e -> cancel.run());
+	}
+
+	/**
+	 * Registers the connection. If the interval is greater than 0 the poll callable is
+	 * evaluated immediately and then with the given delay between two evaluations,
+	 * otherwise only when the event is signalled.
+	 * @param poll returns the serialized poll response
+	 * @return cancels the subscription
+	 */
+	Runnable subscribe(String event, FrameSender sender, Callable<String> poll, long interval) {
+		Subscription subscription = new Subscription(event, sender, poll);
+		this.subscriptions.compute(event, (key, eventSubscriptions) -> {
+			Set<Subscription> newEventSubscriptions = eventSubscriptions != null ? eventSubscriptions
+					: ConcurrentHashMap.newKeySet();
+			newEventSubscriptions.add(subscription);
+			return newEventSubscriptions;
+		});
+
+		if (interval > 0) {
+			subscription.start(this.scheduler.scheduleWithFixedDelay(subscription::schedulePoll, 0, interval,
+					TimeUnit.MILLISECONDS));
+		}
+		return subscription::cancel;
+	}
+
+	/**
+	 * @return a number that changes every time the event is published or signalled
+	 */
+	long getEventVersion(String event) {
+		AtomicLong version = this.eventVersions.get(event);
+		return version != null ? version.get() : 0;
+	}
+
+	/**
+	 * Registers a long poll request. The waiter is called with the pushed response and
+	 * json view when data is published or with null arguments when the event is
+	 * signalled. If the event version changed since the caller read it with
+	 * {@link #getEventVersion(String)} the waiter is signalled immediately, so no event is
+	 * lost between the last call of the POLL method and the registration.
+	 * @return removes the waiter
+	 */
+	Runnable await(String event, long eventVersion, BiConsumer<ExtDirectPollResponse, Class<?>> waiter) {
+		this.waiters.compute(event, (key, eventWaiters) -> {
+			Set<BiConsumer<ExtDirectPollResponse, Class<?>>> newEventWaiters = eventWaiters != null ? eventWaiters
+					: ConcurrentHashMap.newKeySet();
+			newEventWaiters.add(waiter);
+			return newEventWaiters;
+		});
+		if (getEventVersion(event) != eventVersion) {
+			this.pollExecutor.execute(() -> waiter.accept(null, null));
+		}
+		return () -> this.waiters.computeIfPresent(event, (key, eventWaiters) -> {
+			eventWaiters.remove(waiter);
+			return eventWaiters.isEmpty() ? null : eventWaiters;
+		});
+	}
+
+	/**
+	 * @return the number of waiting long poll requests of the given event
+	 */
+	int getWaiterCount(String event) {
+		Set<BiConsumer<ExtDirectPollResponse, Class<?>>> eventWaiters = this.waiters.get(event);
+		return eventWaiters != null ? eventWaiters.size() : 0;
+	}
+
+	/**
+	 * Returns the shared serialized poll response of the call. The first request calls
+	 * the loader and schedules a task that calls it again with the given delay. Requests
+	 * that arrive while the first call runs wait for its result. A failed scheduled call
+	 * keeps the previous response. Once nobody requested the response for ten intervals
+	 * it is removed.
+	 * @param interval delay between two calls in nanoseconds
+	 * @param loader calls the POLL method and returns the serialized response
+	 */
+	byte[] getSharedPollResult(MethodCallKey key, long interval, Callable<byte[]> loader) throws Exception {
+		SharedPollResult sharedPollResult = this.sharedPollResults.get(key);
+		if (sharedPollResult == null) {
+			SharedPollResult newSharedPollResult = new SharedPollResult(key, interval, loader);
+			sharedPollResult = this.sharedPollResults.putIfAbsent(key, newSharedPollResult);
+			if (sharedPollResult == null) {
+				newSharedPollResult.load();
+				return newSharedPollResult.get();
+			}
+		}
+		return sharedPollResult.get();
+	}
+
+	/**
+	 * @return the number of shared poll results that are refreshed periodically
+	 */
+	int getSharedPollResultCount() {
+		return this.sharedPollResults.size();
+	}
+
+	private void incrementEventVersion(String event) {
+		this.eventVersions.computeIfAbsent(event, key -> new AtomicLong()).incrementAndGet();
+	}
+
+	private void notifyWaiters(String event, ExtDirectPollResponse directPollResponse, Class<?> jsonView) {
+		Set<BiConsumer<ExtDirectPollResponse, Class<?>>> eventWaiters = this.waiters.get(event);
+		if (eventWaiters != null) {
+			for (BiConsumer<ExtDirectPollResponse, Class<?>> waiter : eventWaiters) {
+				this.pollExecutor.execute(() -> waiter.accept(directPollResponse, jsonView));
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.scheduler.shutdownNow();
+		this.pollExecutor.shutdownNow();
+		for (Set<Subscription> eventSubscriptions : this.subscriptions.values()) {
+			for (Subscription subscription : eventSubscriptions) {
+				subscription.sender.close();
+			}
+		}
+		this.subscriptions.clear();
+		this.waiters.clear();
+		this.sharedPollResults.clear();
+	}
+
+	private final class SharedPollResult {
+
+		private final MethodCallKey key;
+
+		private final long interval;
+
+		private final Callable<byte[]> loader;
+
+		private final CompletableFuture<byte[]> initialResult = new CompletableFuture<>();
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		private volatile byte[] result;
+
+		private volatile long lastAccess = System.nanoTime();
+
+		private volatile ScheduledFuture<?> future;
+
+		SharedPollResult(MethodCallKey key, long interval, Callable<byte[]> loader) {
+			this.key = key;
+			this.interval = interval;
+			this.loader = loader;
+		}
+
+		void load() throws Exception {
+			try {
+				this.result = this.loader.call();
+				this.initialResult.complete(this.result);
+			}
+			catch (Exception e) {
+				PollEventPublisher.this.sharedPollResults.remove(this.key, this);
+				this.initialResult.completeExceptionally(e);
+				throw e;
+			}
+			this.future = PollEventPublisher.this.scheduler.scheduleWithFixedDelay(this::scheduleRefresh,
+					this.interval, this.interval, TimeUnit.NANOSECONDS);
+		}
+
+		byte[] get() throws Exception {
+			this.lastAccess = System.nanoTime();
+			byte[] current = this.result;
+			if (current != null) {
+				return current;
+			}
+			try {
+				return this.initialResult.join();
+			}
+			catch (CompletionException e) {
+				if (e.getCause() instanceof Exception) {
+					throw (Exception) e.getCause();
+				}
+				throw e;
+			}
+		}
+
+		private void scheduleRefresh() {
+			if (System.nanoTime() - this.lastAccess > 10 * this.interval) {
+				ScheduledFuture<?> scheduledFuture = this.future;
+				if (scheduledFuture != null) {
+					scheduledFuture.cancel(false);
+				}
+				PollEventPublisher.this.sharedPollResults.remove(this.key, this);
+			}
+			else if (this.refreshing.compareAndSet(false, true)) {
+				try {
+					PollEventPublisher.this.pollExecutor.execute(this::refresh);
+				}
+				catch (RuntimeException e) {
+					this.refreshing.set(false);
+					throw e;
+				}
+			}
+		}
+
+		private void refresh() {
+			try {
+				this.result = this.loader.call();
+			}
+			catch (Exception e) {
+				log.error("Error refreshing shared poll result of " + this.key, e);
+			}
+			finally {
+				this.refreshing.set(false);
+			}
+		}
+
+	}
+
+	/**
+	 * A connection that receives serialized poll responses.
+	 */
+	interface FrameSender {
+
+		void send(String frame) throws IOException;
+
+		void close();
+
+	}
+
+	private final class Subscription {
+
+		private final String event;
+
+		private final FrameSender sender;
+
+		private final Callable<String> poll;
+
+		private final AtomicBoolean polling = new AtomicBoolean();
+
+		private volatile ScheduledFuture<?> future;
+
+		private volatile boolean cancelled;
+
+		private String lastFrame;
+
+		Subscription(String event, FrameSender sender, Callable<String> poll) {
+			this.event = event;
+			this.sender = sender;
+			this.poll = poll;
+		}
+
+		void start(ScheduledFuture<?> scheduledFuture) {
+			this.future = scheduledFuture;
+			if (this.cancelled) {
+				scheduledFuture.cancel(false);
+			}
+		}
+
+		void schedulePoll() {
+			if (!this.cancelled && this.polling.compareAndSet(false, true)) {
+				try {
+					PollEventPublisher.this.pollExecutor.execute(this::poll);
+				}
+				catch (RuntimeException e) {
+					this.polling.set(false);
+					throw e;
+				}
+			}
+		}
+
+		private void poll() {
+			try {
+				send(this.poll.call());
+			}
+			catch (Exception e) {
+				log.error("Error polling event '" + this.event + "'", e);
+			}
+			finally {
+				this.polling.set(false);
+			}
+		}
+
+		synchronized void send(String frame) {
+			if (this.cancelled || frame.equals(this.lastFrame)) {
+				return;
+			}
+			try {
+				this.sender.send(frame);
+				this.lastFrame = frame;
+			}
+			catch (IOException | IllegalStateException e) {
+				cancel();
+			}
+		}
+
+		void cancel() {
+			this.cancelled = true;
+			ScheduledFuture<?> scheduledFuture = this.future;
+			if (scheduledFuture != null) {
+				scheduledFuture.cancel(false);
+			}
+			PollEventPublisher.this.subscriptions.computeIfPresent(this.event, (key, eventSubscriptions) -> {
+				eventSubscriptions.remove(this);
+				return eventSubscriptions.isEmpty() ? null : eventSubscriptions;
+			});
+		}
+
+	}
+
+}
@@ -15,18 +15,30 @@
  */
 package ch.ralscha.extdirectspring.controller;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
 
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
@@ -38,22 +50,25 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
-import org.springframework.util.FileCopyUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
-import org.springframework.web.util.WebUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.annotation.SessionAccess;
 import ch.ralscha.extdirectspring.bean.BaseResponse;
 import ch.ralscha.extdirectspring.bean.EdFormLoadResult;
 import ch.ralscha.extdirectspring.bean.EdFormPostResult;
@@ -65,11 +80,22 @@ import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
 import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
 import ch.ralscha.extdirectspring.bean.ExtDirectResponseRaw;
 import ch.ralscha.extdirectspring.bean.ExtDirectStoreResult;
+import ch.ralscha.extdirectspring.bean.ExtDirectTiming;
 import ch.ralscha.extdirectspring.bean.JsonViewHint;
 import ch.ralscha.extdirectspring.bean.ModelAndJsonView;
+import ch.ralscha.extdirectspring.util.CountingOutputStream;
 import ch.ralscha.extdirectspring.util.ExtDirectSpringUtil;
+import ch.ralscha.extdirectspring.util.JsonHandler;
+import ch.ralscha.extdirectspring.util.MethodCallCoalescer;
+import ch.ralscha.extdirectspring.util.MethodCallKey;
 import ch.ralscha.extdirectspring.util.MethodInfo;
 import ch.ralscha.extdirectspring.util.MethodInfoCache;
+import ch.ralscha.extdirectspring.util.MethodResultCache;
+import ch.ralscha.extdirectspring.util.ParametersResolver;
+import ch.ralscha.extdirectspring.util.PooledOutputStream;
+import ch.ralscha.extdirectspring.util.SessionLockManager;
+import ch.ralscha.extdirectspring.util.TextareaEscapingOutputStream;
+import ch.ralscha.extdirectspring.util.TypedDataReader;
 
 /**
  * Main router controller that handles polling, form handler and normal Ext Direct calls.
@@ -84,6 +110,10 @@ public class RouterController {
 
 	private static final Log log = LogFactory.getLog(RouterController.class);
 
+	private static final String PARSE_NANOS_ATTRIBUTE = RouterController.class.getName() + ".parseNanos";
+
+	private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
 	private final RequestMappingHandlerAdapter handlerAdapter;
 
 	private final ConfigurationService configurationService;
@@ -93,6 +123,9 @@ public class RouterController {
 	@Autowired(required = false)
 	private Set<ExtRequestListener> extRequestListeners;
 
+	@Autowired
+	private PollEventPublisher pollEventPublisher;
+
 	@Autowired
 	public RouterController(RequestMappingHandlerAdapter handlerAdapter, ConfigurationService configurationService,
 			MethodInfoCache methodInfoCache) {
@@ -102,9 +135,9 @@ public class RouterController {
 	}
 
 	@RequestMapping(value = "/poll/{beanName}/{method}/{event}")
-	public void poll(@PathVariable("beanName") String beanName, @PathVariable("method") String method,
-			@PathVariable("event") String event, HttpServletRequest request, HttpServletResponse response,
-			Locale locale) throws Exception {
+	public DeferredResult<ModelAndView> poll(@PathVariable("beanName") String beanName,
+			@PathVariable("method") String method, @PathVariable("event") String event, HttpServletRequest request,
+			HttpServletResponse response, Locale locale) throws Exception {
 
 		ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
 		directPollResponse.setName(event);
@@ -122,56 +155,74 @@ public class RouterController {
 
 				Object[] parameters = this.configurationService.getParametersResolver()
 					.prepareParameters(request, response, locale, methodInfo);
+				long eventVersion = this.pollEventPublisher.getEventVersion(event);
+
+				if (methodInfo.getSharedPollInterval() > 0) {
+					byte[] sharedResponse = this.pollEventPublisher.getSharedPollResult(
+							MethodResultCache.createKey(beanName, method, parameters),
+							methodInfo.getSharedPollInterval(), () -> {
+								ExtDirectPollResponse sharedPollResponse = new ExtDirectPollResponse();
+								sharedPollResponse.setName(event);
+								Class<?> sharedJsonView = setPollResult(sharedPollResponse, methodInfo,
+										callPollMethod(beanName, methodInfo, parameters, null));
+								return this.pollEventPublisher.writeFrame(sharedPollResponse, sharedJsonView)
+									.getBytes(ExtDirectSpringUtil.UTF8_CHARSET);
+							});
+					writeJsonResponse(response, sharedResponse);
+					return null;
+				}
 
-				if (this.configurationService.getConfiguration().isSynchronizeOnSession()
-						|| methodInfo.isSynchronizeOnSession()) {
-					HttpSession session = request.getSession(false);
-					if (session != null) {
-						Object mutex = WebUtils.getSessionMutex(session);
-						synchronized (mutex) {
-							Object result = ExtDirectSpringUtil.invoke(
-									this.configurationService.getApplicationContext(), beanName, methodInfo,
-									parameters);
-
-							if (result instanceof ModelAndJsonView) {
-								ModelAndJsonView modelAndJsonView = (ModelAndJsonView) result;
-								directPollResponse.setData(modelAndJsonView.getModel());
-								jsonView = getJsonView(modelAndJsonView, methodInfo.getJsonView());
-							}
-							else {
-								directPollResponse.setData(result);
-								jsonView = getJsonView(result, methodInfo.getJsonView());
-							}
-						}
+				Object result = callSynchronizedOnSession(request, methodInfo, () -> ExtDirectSpringUtil
+					.invoke(this.configurationService.getApplicationContext(), beanName, methodInfo, parameters));
+
+				CompletableFuture<Object> asyncResult = toCompletableFuture(result);
+				if (asyncResult != null && !asyncResult.isDone()) {
+					if (methodInfo.getTimeout() > 0) {
+						asyncResult = asyncResult.copy().orTimeout(methodInfo.getTimeout(), TimeUnit.MILLISECONDS);
 					}
-					else {
-						Object result = ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
-								beanName, methodInfo, parameters);
-						if (result instanceof ModelAndJsonView) {
-							ModelAndJsonView modelAndJsonView = (ModelAndJsonView) result;
-							directPollResponse.setData(modelAndJsonView.getModel());
-							jsonView = getJsonView(modelAndJsonView, methodInfo.getJsonView());
+					DeferredResult<ModelAndView> deferredResult = new DeferredResult<>(
+							methodInfo.getTimeout() > 0 ? Long.valueOf(methodInfo.getTimeout()) : null);
+					AtomicBoolean answered = new AtomicBoolean();
+					deferredResult.onTimeout(() -> {
+						if (answered.compareAndSet(false, true)) {
+							TimeoutException e = new TimeoutException(
+									"Method '" + beanName + "." + method + "' timed out");
+							log.error("Error polling method '" + beanName + "." + method + "'", e);
+							directPollResponse.setData(handleException(methodInfo, directPollResponse, e, request));
+							writeDeferredPollResponse(deferredResult, response, directPollResponse, null,
+									streamResponse);
+						}
+					});
+					deferredResult.onError(ex -> answered.set(true));
+					asyncResult.whenComplete((asyncValue, ex) -> {
+						if (!answered.compareAndSet(false, true) || deferredResult.isSetOrExpired()) {
+							return;
+						}
+						Class<?> asyncJsonView = null;
+						if (ex == null) {
+							asyncJsonView = setPollResult(directPollResponse, methodInfo, asyncValue);
 						}
 						else {
-							directPollResponse.setData(result);
-							jsonView = getJsonView(result, methodInfo.getJsonView());
+							log.error("Error polling method '" + beanName + "." + method + "'",
+									toAsyncException(ex).getCause());
+							directPollResponse.setData(
+									handleException(methodInfo, directPollResponse, toAsyncException(ex), request));
 						}
-					}
-				}
-				else {
-					Object result = ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
-							beanName, methodInfo, parameters);
-					if (result instanceof ModelAndJsonView) {
-						ModelAndJsonView modelAndJsonView = (ModelAndJsonView) result;
-						directPollResponse.setData(modelAndJsonView.getModel());
-						jsonView = getJsonView(modelAndJsonView, methodInfo.getJsonView());
-					}
-					else {
-						directPollResponse.setData(result);
-						jsonView = getJsonView(result, methodInfo.getJsonView());
-					}
+						writeDeferredPollResponse(deferredResult, response, directPollResponse, asyncJsonView,
+								streamResponse);
+					});
+					return deferredResult;
 				}
 
+				jsonView = setPollResult(directPollResponse, methodInfo,
+						asyncResult != null ? asyncResult.join() : result);
+
+				Integer longPollTimeout = this.configurationService.getConfiguration().getLongPollTimeout();
+				if (longPollTimeout != null && directPollResponse.getData() == null && !methodInfo.hasServletParameter()
+						&& isPollEvent(methodInfo, event)) {
+					return longPoll(beanName, method, event, methodInfo, parameters, eventVersion,
+							request.getSession(false), response, streamResponse, longPollTimeout);
+				}
 			}
 			catch (Exception e) {
 				log.error("Error polling method '" + beanName + "." + method + "'",
@@ -186,6 +237,170 @@ public class RouterController {
 		}
 
 		writeJsonResponse(response, directPollResponse, jsonView, streamResponse);
+		return null;
+	}
+
+	/**
+	 * Holds the poll request open until the event is published or signalled and the POLL
+	 * method returns data, or until the timeout expires, see
+	 * {@link Configuration#setLongPollTimeout(Integer)}. The method is called again with
+	 * the already resolved parameters, which must not contain request, response or
+	 * session objects.
+	 */
+	private DeferredResult<ModelAndView> longPoll(String beanName, String method, String event, MethodInfo methodInfo,
+			Object[] parameters, long eventVersion, HttpSession session, HttpServletResponse response,
+			boolean streamResponse, long timeout) {
+
+		DeferredResult<ModelAndView> deferredResult = new DeferredResult<>(timeout);
+		AtomicBoolean answered = new AtomicBoolean();
+
+		Runnable removeWaiter = this.pollEventPublisher.await(event, eventVersion, (pushedResponse, pushedJsonView) -> {
+			ExtDirectPollResponse directPollResponse = pushedResponse;
+			Class<?> jsonView = pushedJsonView;
+			if (directPollResponse == null) {
+				directPollResponse = new ExtDirectPollResponse();
+				directPollResponse.setName(event);
+				jsonView = invokePollMethod(directPollResponse, beanName, method, methodInfo, parameters, session,
+						null);
+				if (directPollResponse.getData() == null && !"exception".equals(directPollResponse.getType())) {
+					return;
+				}
+			}
+			if (answered.compareAndSet(false, true)) {
+				writeDeferredPollResponse(deferredResult, response, directPollResponse, jsonView, streamResponse);
+			}
+		});
+
+		deferredResult.onTimeout(() -> {
+			if (answered.compareAndSet(false, true)) {
+				ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+				directPollResponse.setName(event);
+				writeDeferredPollResponse(deferredResult, response, directPollResponse, null, streamResponse);
+			}
+		});
+		deferredResult.onCompletion(removeWaiter);
+		return deferredResult;
+	}
+
+	private void writeDeferredPollResponse(DeferredResult<ModelAndView> deferredResult, HttpServletResponse response,
+			ExtDirectPollResponse directPollResponse, Class<?> jsonView, boolean streamResponse) {
+		try {
+			writeJsonResponse(response, directPollResponse, jsonView, streamResponse);
+			deferredResult.setResult(null);
+		}
+		catch (IOException e) {
+			deferredResult.setErrorResult(e);
+		}
+	}
+
+	/**
+	 * Calls the POLL method, waits for an asynchronous result and stores the result or
+	 * the exception in the response. The request is passed to the
+	 * {@link RouterExceptionHandler} and is null when the method is called outside of the
+	 * request thread.
+	 * @return the json view of the result
+	 */
+	Class<?> invokePollMethod(ExtDirectPollResponse directPollResponse, String beanName, String method,
+			MethodInfo methodInfo, Object[] parameters, HttpSession session, HttpServletRequest request) {
+		try {
+			return setPollResult(directPollResponse, methodInfo,
+					callPollMethod(beanName, methodInfo, parameters, session));
+		}
+		catch (Exception e) {
+			log.error("Error polling method '" + beanName + "." + method + "'",
+					e.getCause() != null ? e.getCause() : e);
+			directPollResponse.setData(handleException(methodInfo, directPollResponse, e, request));
+			return null;
+		}
+	}
+
+	/**
+	 * Calls the POLL method and waits for an asynchronous result.
+	 */
+	private Object callPollMethod(String beanName, MethodInfo methodInfo, Object[] parameters, HttpSession session)
+			throws Exception {
+		Object result = callSynchronizedOnSession(session, methodInfo, () -> ExtDirectSpringUtil
+			.invoke(this.configurationService.getApplicationContext(), beanName, methodInfo, parameters));
+		CompletableFuture<Object> asyncResult = toCompletableFuture(result);
+		if (asyncResult != null) {
+			if (methodInfo.getTimeout() > 0) {
+				asyncResult = asyncResult.copy().orTimeout(methodInfo.getTimeout(), TimeUnit.MILLISECONDS);
+			}
+			return asyncResult.join();
+		}
+		return result;
+	}
+
+	private static Class<?> setPollResult(ExtDirectPollResponse directPollResponse, MethodInfo methodInfo,
+			Object result) {
+		if (result instanceof ModelAndJsonView) {
+			ModelAndJsonView modelAndJsonView = (ModelAndJsonView) result;
+			directPollResponse.setData(modelAndJsonView.getModel());
+			return getJsonView(modelAndJsonView, methodInfo.getJsonView());
+		}
+		directPollResponse.setData(result);
+		return getJsonView(result, methodInfo.getJsonView());
+	}
+
+	@RequestMapping(value = "/sse/{beanName}/{method}/{event}", method = RequestMethod.GET)
+	public SseEmitter sse(@PathVariable("beanName") String beanName, @PathVariable("method") String method,
+			@PathVariable("event") String event, HttpServletRequest request, HttpServletResponse response,
+			Locale locale) throws Exception {
+
+		Integer ssePollInterval = this.configurationService.getConfiguration().getSsePollInterval();
+		if (ssePollInterval == null) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return null;
+		}
+
+		SseEmitter emitter = new SseEmitter(this.configurationService.getConfiguration().getSseTimeout());
+		MethodInfo methodInfo = this.methodInfoCache.get(beanName, method);
+		if (methodInfo == null) {
+			log.error("Error invoking method '" + beanName + "." + method + "'. Method or Bean not found");
+			ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+			directPollResponse.setName(event);
+			handleMethodNotFoundError(directPollResponse, beanName, method);
+			emitter.send(SseEmitter.event().data(this.pollEventPublisher.writeFrame(directPollResponse, null)));
+			emitter.complete();
+			return emitter;
+		}
+
+		// the event names the subscription, only the event of the POLL method is
+		// accepted
+		if (!isPollEvent(methodInfo, event)) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return null;
+		}
+
+		Object[] parameters = this.configurationService.getParametersResolver()
+			.prepareParameters(request, response, locale, methodInfo);
+		HttpSession session = request.getSession(false);
+
+		if (methodInfo.hasServletParameter()) {
+			// request, response and session must not be used after this request thread
+			// returns, so the method is only called once
+			ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+			directPollResponse.setName(event);
+			Class<?> jsonView = invokePollMethod(directPollResponse, beanName, method, methodInfo, parameters, session,
+					request);
+			emitter.send(SseEmitter.event().data(this.pollEventPublisher.writeFrame(directPollResponse, jsonView)));
+			emitter.complete();
+			return emitter;
+		}
+
+		this.pollEventPublisher.subscribe(event, emitter, () -> {
+			ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+			directPollResponse.setName(event);
+			Class<?> jsonView = invokePollMethod(directPollResponse, beanName, method, methodInfo, parameters, session,
+					null);
+			return this.pollEventPublisher.writeFrame(directPollResponse, jsonView);
+		}, ssePollInterval);
+
+		return emitter;
+	}
+
+	private static boolean isPollEvent(MethodInfo methodInfo, String event) {
+		return methodInfo.getPollingProvider() != null && methodInfo.getPollingProvider().getEvent().equals(event);
 	}
 
 	@RequestMapping(value = "/router", method = RequestMethod.POST, params = "extAction")
@@ -208,24 +423,8 @@ public class RouterController {
 			HandlerMethod handlerMethod = methodInfo.getHandlerMethod();
 			try {
 
-				ModelAndView modelAndView;
-
-				if (this.configurationService.getConfiguration().isSynchronizeOnSession()
-						|| methodInfo.isSynchronizeOnSession()) {
-					HttpSession session = request.getSession(false);
-					if (session != null) {
-						Object mutex = WebUtils.getSessionMutex(session);
-						synchronized (mutex) {
-							modelAndView = this.handlerAdapter.handle(request, response, handlerMethod);
-						}
-					}
-					else {
-						modelAndView = this.handlerAdapter.handle(request, response, handlerMethod);
-					}
-				}
-				else {
-					modelAndView = this.handlerAdapter.handle(request, response, handlerMethod);
-				}
+				ModelAndView modelAndView = callSynchronizedOnSession(request, methodInfo,
+						() -> this.handlerAdapter.handle(request, response, handlerMethod));
 
 				Map<String, Object> model = modelAndView.getModel();
 				if (model.containsKey("extDirectFormPostResult")) {
@@ -258,134 +457,521 @@ public class RouterController {
 
 	@RequestMapping(value = "/router", method = RequestMethod.POST, params = "!extAction",
 			consumes = MediaType.APPLICATION_JSON_VALUE)
-	public void router(HttpServletRequest request, HttpServletResponse response, Locale locale) throws IOException {
-
-		Object requestData = this.configurationService.getJsonHandler()
-			.readValue(request.getInputStream(), Object.class);
+	public DeferredResult<ModelAndView> router(HttpServletRequest request, HttpServletResponse response, Locale locale)
+			throws IOException {
 
-		List<ExtDirectRequest> directRequests = null;
-		if (requestData instanceof Map) {
-			directRequests = Collections.singletonList(
-					this.configurationService.getJsonHandler().convertValue(requestData, ExtDirectRequest.class));
+		ExtDirectBatchEvent batchEvent = ExtDirectBatchEvent.beginIfEnabled();
+		long parseStart = System.nanoTime();
+		List<ExtDirectRequest> directRequests;
+		TypedDataReader typedDataReader = this.configurationService.getTypedDataReader();
+		if (typedDataReader != null) {
+			directRequests = typedDataReader.readDirectRequests(request.getInputStream());
 		}
-		else if (requestData instanceof List) {
-			directRequests = new ArrayList<>();
-			for (Object oneRequest : (List<?>) requestData) {
-				directRequests
-					.add(this.configurationService.getJsonHandler().convertValue(oneRequest, ExtDirectRequest.class));
-			}
+		else {
+			directRequests = this.configurationService.getJsonHandler().readDirectRequests(request.getInputStream());
 		}
+		long parseNanos = System.nanoTime() - parseStart;
 
 		if (directRequests != null) {
+			RouterMetrics routerMetrics = this.configurationService.getRouterMetrics();
+			if (routerMetrics != null) {
+				routerMetrics.recordBatchSize(directRequests.size());
+				routerMetrics.recordPhase("parse", parseNanos);
+			}
+			if (isPhaseTimingEnabled()) {
+				request.setAttribute(PARSE_NANOS_ATTRIBUTE, parseNanos);
+			}
+
 			if (directRequests.size() == 1) {
-				handleMethodCallOne(directRequests.get(0), request, response, locale);
+				return writeDirectResponsesWhenComplete(directRequests,
+						Collections.singletonList(handleMethodCall(directRequests.get(0), request, response, locale)),
+						request, response);
+			}
+
+			DeferredResult<ModelAndView> deferredResult = null;
+			if (this.configurationService.getConfiguration().isIncrementalBatchResponse()) {
+				handleMethodCallsIncremental(directRequests, request, response, locale);
 			}
 			else if (this.configurationService.getConfiguration()
 				.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.SEQUENTIAL) {
-				handleMethodCallsSequential(directRequests, request, response, locale);
+				deferredResult = handleMethodCallsSequential(directRequests, request, response, locale);
 			}
 			else if (this.configurationService.getConfiguration()
-				.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.CONCURRENT) {
-				handleMethodCallsConcurrent(directRequests, request, response, locale);
+				.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.CONCURRENT
+					|| this.configurationService.getConfiguration()
+						.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.VIRTUAL_THREADS) {
+				deferredResult = handleMethodCallsConcurrent(directRequests, request, response, locale);
+			}
+
+			if (batchEvent != null) {
+				if (deferredResult != null) {
+					deferredResult.onCompletion(() -> commitBatchEvent(batchEvent, directRequests.size()));
+				}
+				else {
+					commitBatchEvent(batchEvent, directRequests.size());
+				}
 			}
+			return deferredResult;
 		}
 
+		return null;
 	}
 
-	private void handleMethodCallsConcurrent(List<ExtDirectRequest> directRequests, HttpServletRequest request,
-			HttpServletResponse response, Locale locale) throws IOException {
+	private void commitBatchEvent(ExtDirectBatchEvent batchEvent, int size) {
+		batchEvent.end();
+		if (batchEvent.shouldCommit()) {
+			Configuration configuration = this.configurationService.getConfiguration();
+			batchEvent.policy = configuration.getBatchedMethodsExecutionPolicy().name();
+			batchEvent.incremental = configuration.isIncrementalBatchResponse();
+			batchEvent.size = size;
+			batchEvent.commit();
+		}
+	}
 
-		List<Future<ExtDirectResponse>> futures = new ArrayList<>(directRequests.size());
-		for (ExtDirectRequest directRequest : directRequests) {
-			Callable<ExtDirectResponse> callable = createMethodCallCallable(directRequest, request, response, locale);
-			futures
-				.add(this.configurationService.getConfiguration().getBatchedMethodsExecutorService().submit(callable));
+	private DeferredResult<ModelAndView> handleMethodCallsConcurrent(List<ExtDirectRequest> directRequests,
+			HttpServletRequest request, HttpServletResponse response, Locale locale) throws IOException {
+
+		int[] identicalCalls = findIdenticalCalls(directRequests);
+
+		List<Future<CompletableFuture<ExtDirectResponse>>> futures = new ArrayList<>(directRequests.size());
+		// the call and the deadline claim the response, the loser discards its response
+		List<AtomicBoolean> claims = new ArrayList<>(directRequests.size());
+		for (int i = 0; i < directRequests.size(); i++) {
+			if (identicalCalls != null && identicalCalls[i] != i) {
+				futures.add(null);
+				claims.add(null);
+				continue;
+			}
+			Callable<CompletableFuture<ExtDirectResponse>> callable = createMethodCallCallable(directRequests.get(i),
+					request, response, locale);
+			AtomicBoolean claim = new AtomicBoolean();
+			futures.add(this.configurationService.getConfiguration().getBatchedMethodsExecutorService().submit(() -> {
+				CompletableFuture<ExtDirectResponse> directResponse = callable.call();
+				if (!claim.compareAndSet(false, true)) {
+					directResponse.thenAccept(RouterController::discardDirectResponse);
+				}
+				return directResponse;
+			}));
+			claims.add(claim);
 		}
 
-		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
-		List<Object> directResponses = new ArrayList<>(directRequests.size());
-		boolean streamResponse = this.configurationService.getConfiguration().isStreamResponse();
-		for (Future<ExtDirectResponse> future : futures) {
+		long start = System.nanoTime();
+		List<CompletableFuture<ExtDirectResponse>> directResponses = new ArrayList<>(directRequests.size());
+		for (int i = 0; i < futures.size(); i++) {
+			Future<CompletableFuture<ExtDirectResponse>> future = futures.get(i);
+			ExtDirectRequest directRequest = directRequests.get(i);
+			if (future == null) {
+				CompletableFuture<ExtDirectResponse> identicalCall = directResponses.get(identicalCalls[i]);
+				directResponses.add(identicalCall != null
+						? identicalCall.thenApply(identicalResponse -> copyResponse(directRequest, identicalResponse))
+						: null);
+				continue;
+			}
+			long timeout = getBatchedMethodTimeout(directRequest);
+			long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
 			try {
-				ExtDirectResponse directResponse = future.get();
-				streamResponse = streamResponse || directResponse.isStreamResponse();
-				Class<?> jsonView = directResponse.getJsonView();
-				if (jsonView == null) {
-					directResponses.add(directResponse);
+				if (timeout > 0) {
+					directResponses.add(withDeadline(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS),
+							deadline, directRequest, request));
 				}
 				else {
-					String jsonResult = objectMapper.writerWithView(jsonView)
-						.writeValueAsString(directResponse.getResult());
-					directResponses.add(new ExtDirectResponseRaw(directResponse, jsonResult));
+					directResponses.add(future.get());
+				}
+			}
+			catch (TimeoutException e) {
+				if (claims.get(i).compareAndSet(false, true)) {
+					future.cancel(true);
+					directResponses
+						.add(CompletableFuture.completedFuture(createTimeoutResponse(directRequest, request)));
+				}
+				else {
+					// the call returned right at the deadline
+					directResponses.add(withDeadline(getClaimedResponse(future), deadline, directRequest, request));
 				}
 			}
 			catch (InterruptedException e) {
 				log.error("Error invoking method", e);
+				directResponses.add(null);
 			}
 			catch (ExecutionException e) {
 				log.error("Error invoking method", e);
+				directResponses.add(null);
 			}
 		}
-		writeJsonResponse(response, directResponses, null, streamResponse);
+		return writeDirectResponsesWhenComplete(directRequests, directResponses, request, response);
 	}
 
-	private Callable<ExtDirectResponse> createMethodCallCallable(final ExtDirectRequest directRequest,
-			final HttpServletRequest request, final HttpServletResponse response, final Locale locale) {
-		return () -> handleMethodCall(directRequest, request, response, locale);
+	/**
+	 * Looks for calls of {@link ExtDirectMethod#idempotent()} methods with the same data
+	 * and metadata in the batch.
+	 * @return for every request the index of the first identical call in the batch, or
+	 * the index of the request itself; null if the batch contains no identical calls
+	 */
+	private int[] findIdenticalCalls(List<ExtDirectRequest> directRequests) {
+		int[] identicalCalls = null;
+		Map<MethodCallKey, Integer> firstCalls = null;
+		for (int i = 0; i < directRequests.size(); i++) {
+			ExtDirectRequest directRequest = directRequests.get(i);
+			MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+			if (methodInfo != null && methodInfo.isIdempotent()) {
+				if (firstCalls == null) {
+					firstCalls = new HashMap<>();
+				}
+				Integer firstCall = firstCalls.putIfAbsent(new MethodCallKey(directRequest.getAction(),
+						directRequest.getMethod(), directRequest.getData(), directRequest.getMetadata()), i);
+				if (firstCall != null) {
+					if (identicalCalls == null) {
+						identicalCalls = new int[directRequests.size()];
+						for (int j = 0; j < identicalCalls.length; j++) {
+							identicalCalls[j] = j;
+						}
+					}
+					identicalCalls[i] = firstCall;
+				}
+			}
+		}
+		return identicalCalls;
 	}
 
-	private void handleMethodCallOne(ExtDirectRequest directRequest, HttpServletRequest request,
-			HttpServletResponse response, Locale locale) throws IOException {
+	/**
+	 * Creates the response for a call that shares the result of an identical call.
+	 */
+	private static ExtDirectResponse copyResponse(ExtDirectRequest directRequest, ExtDirectResponse identicalResponse) {
+		ExtDirectResponse directResponse = new ExtDirectResponse(directRequest);
+		directResponse.setType(identicalResponse.getType());
+		directResponse.setMessage(identicalResponse.getMessage());
+		directResponse.setWhere(identicalResponse.getWhere());
+		directResponse.setResult(identicalResponse.getResult());
+		directResponse.setStreamResponse(identicalResponse.isStreamResponse());
+		directResponse.setJsonView(identicalResponse.getJsonView());
+		return directResponse;
+	}
 
-		ExtDirectResponse directResponse = handleMethodCall(directRequest, request, response, locale);
-		boolean streamResponse = this.configurationService.getConfiguration().isStreamResponse()
-				|| directResponse.isStreamResponse();
-		Class<?> jsonView = directResponse.getJsonView();
+	/**
+	 * @return the shorter of the batch deadline and the timeout of the method in
+	 * milliseconds, 0 if neither is set
+	 */
+	private long getBatchedMethodTimeout(ExtDirectRequest directRequest) {
+		long timeout = 0;
+		Integer batchedMethodsTimeout = this.configurationService.getConfiguration().getBatchedMethodsTimeout();
+		if (batchedMethodsTimeout != null && batchedMethodsTimeout > 0) {
+			timeout = batchedMethodsTimeout;
+		}
 
-		Object responseObject;
-		if (jsonView == null) {
-			responseObject = Collections.singleton(directResponse);
+		MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+		if (methodInfo != null && methodInfo.getTimeout() > 0 && (timeout == 0 || methodInfo.getTimeout() < timeout)) {
+			timeout = methodInfo.getTimeout();
+		}
+		return timeout;
+	}
+
+	private CompletableFuture<ExtDirectResponse> withDeadline(CompletableFuture<ExtDirectResponse> directResponse,
+			long deadline, ExtDirectRequest directRequest, HttpServletRequest request) {
+		if (directResponse == null || directResponse.isDone()) {
+			return directResponse;
+		}
+		return directResponse.orTimeout(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)
+			.exceptionally(ex -> createTimeoutResponse(directRequest, request));
+	}
+
+	private static CompletableFuture<ExtDirectResponse> getClaimedResponse(
+			Future<CompletableFuture<ExtDirectResponse>> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException | ExecutionException e) {
+			log.error("Error invoking method", e);
+			return null;
+		}
+	}
+
+	private ExtDirectResponse createTimeoutResponse(ExtDirectRequest directRequest, HttpServletRequest request) {
+		ExtDirectResponse directResponse = new ExtDirectResponse(directRequest);
+		MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+		if (methodInfo != null) {
+			TimeoutException e = new TimeoutException(
+					"Method '" + directRequest.getAction() + "." + directRequest.getMethod() + "' timed out");
+			log.error("Error calling method: " + directRequest.getMethod(), e);
+			directResponse.setResult(handleException(methodInfo, directResponse, e, request));
 		}
 		else {
-			ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
-			String jsonResult = objectMapper.writerWithView(jsonView).writeValueAsString(directResponse.getResult());
-			responseObject = Collections.singleton(new ExtDirectResponseRaw(directResponse, jsonResult));
+			handleMethodNotFoundError(directResponse, directRequest.getAction(), directRequest.getMethod());
+		}
+		return directResponse;
+	}
+
+	/**
+	 * Writes the responses as soon as all of them are complete. Returns null if the
+	 * responses are already written, otherwise a {@link DeferredResult} that is set after
+	 * the last response has been written.
+	 * <p>
+	 * The DeferredResult expires after the longest {@link ExtDirectMethod#timeout()} of
+	 * the calls, or after the default async timeout if one of the methods has none. Calls
+	 * that are still running at that point are answered with a timeout exception.
+	 * @param directRequests the requests, in the same order as the responses
+	 * @param directResponses the responses, null for calls that are not answered
+	 */
+	private DeferredResult<ModelAndView> writeDirectResponsesWhenComplete(List<ExtDirectRequest> directRequests,
+			List<CompletableFuture<ExtDirectResponse>> directResponses, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+
+		CompletableFuture<Void> allDone = CompletableFuture
+			.allOf(directResponses.stream().filter(Objects::nonNull).toArray(CompletableFuture<?>[]::new));
+		if (allDone.isDone()) {
+			writeDirectResponses(directResponses, response);
+			return null;
 		}
 
-		writeJsonResponse(response, responseObject, null, streamResponse);
+		DeferredResult<ModelAndView> deferredResult = new DeferredResult<>(getAsyncTimeout(directRequests));
+		AtomicBoolean answered = new AtomicBoolean();
+		Runnable writeResponses = () -> {
+			if (answered.compareAndSet(false, true) && !deferredResult.isSetOrExpired()) {
+				try {
+					writeDirectResponses(directResponses, response);
+					deferredResult.setResult(null);
+				}
+				catch (IOException e) {
+					deferredResult.setErrorResult(e);
+				}
+			}
+		};
+
+		deferredResult.onTimeout(() -> {
+			for (int i = 0; i < directResponses.size(); i++) {
+				CompletableFuture<ExtDirectResponse> directResponse = directResponses.get(i);
+				if (directResponse != null && !directResponse.isDone()) {
+					directResponse.complete(createTimeoutResponse(directRequests.get(i), request));
+				}
+			}
+			writeResponses.run();
+		});
+		deferredResult.onError(ex -> answered.set(true));
+		allDone.whenComplete((v, ex) -> writeResponses.run());
+		return deferredResult;
+	}
+
+	/**
+	 * @return the longest timeout of the called methods in milliseconds, null if one of
+	 * the methods has no timeout
+	 */
+	private Long getAsyncTimeout(List<ExtDirectRequest> directRequests) {
+		long timeout = 0;
+		for (ExtDirectRequest directRequest : directRequests) {
+			MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+			if (methodInfo != null) {
+				if (methodInfo.getTimeout() <= 0) {
+					return null;
+				}
+				timeout = Math.max(timeout, methodInfo.getTimeout());
+			}
+		}
+		return timeout > 0 ? timeout : null;
 	}
 
-	private void handleMethodCallsSequential(List<ExtDirectRequest> directRequests, HttpServletRequest request,
-			HttpServletResponse response, Locale locale) throws IOException {
-		List<Object> directResponses = new ArrayList<>(directRequests.size());
+	private void writeDirectResponses(List<CompletableFuture<ExtDirectResponse>> directResponses,
+			HttpServletResponse response) throws IOException {
+		List<Object> responseObjects = new ArrayList<>(directResponses.size());
 		boolean streamResponse = this.configurationService.getConfiguration().isStreamResponse();
 
-		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
+		JsonHandler jsonHandler = this.configurationService.getJsonHandler();
+		List<LongConsumer> sizeConsumers = null;
+		long parseNanos = 0;
+		long resolveNanos = 0;
+		long invokeNanos = 0;
 
-		for (ExtDirectRequest directRequest : directRequests) {
-			ExtDirectResponse directResponse = handleMethodCall(directRequest, request, response, locale);
+		for (CompletableFuture<ExtDirectResponse> future : directResponses) {
+			if (future == null) {
+				continue;
+			}
+			ExtDirectResponse directResponse = future.join();
+			ExtDirectTiming timing = directResponse.getTiming();
+			if (timing != null) {
+				parseNanos = timing.getParseNanos();
+				resolveNanos += timing.getResolveNanos();
+				invokeNanos += timing.getInvokeNanos();
+			}
 			streamResponse = streamResponse || directResponse.isStreamResponse();
 			Class<?> jsonView = directResponse.getJsonView();
 			if (jsonView == null) {
-				directResponses.add(directResponse);
+				responseObjects.add(directResponse);
 			}
 			else {
-				String jsonResult = objectMapper.writerWithView(jsonView)
-					.writeValueAsString(directResponse.getResult());
-				directResponses.add(new ExtDirectResponseRaw(directResponse, jsonResult));
+				responseObjects.add(new ExtDirectResponseRaw(directResponse, jsonHandler.getWriterWithView(jsonView)));
+			}
+			if (directResponse.getSizeConsumer() != null && sizeConsumers == null) {
+				sizeConsumers = new ArrayList<>(Collections.nCopies(responseObjects.size() - 1, null));
 			}
+			if (sizeConsumers != null) {
+				sizeConsumers.add(directResponse.getSizeConsumer());
+			}
+		}
+
+		if (this.configurationService.getConfiguration().isServerTiming()) {
+			response.addHeader(SERVER_TIMING_HEADER, serverTiming("parse", parseNanos) + ", "
+					+ serverTiming("resolve", resolveNanos) + ", " + serverTiming("invoke", invokeNanos));
 		}
 
-		writeJsonResponse(response, directResponses, null, streamResponse);
+		writeJsonResponse(response, responseObjects, null, streamResponse, false, sizeConsumers);
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	ExtDirectResponse handleMethodCall(ExtDirectRequest directRequest, HttpServletRequest request,
+	@SuppressWarnings("resource")
+	private void handleMethodCallsIncremental(List<ExtDirectRequest> directRequests, HttpServletRequest request,
+			HttpServletResponse response, Locale locale) throws IOException {
+
+		response.setContentType(APPLICATION_JSON.toString());
+		response.setCharacterEncoding(APPLICATION_JSON.getCharset().name());
+
+		RouterMetrics routerMetrics = this.configurationService.getRouterMetrics();
+		CountingOutputStream countingOutputStream = new CountingOutputStream(response.getOutputStream());
+
+		JsonHandler jsonHandler = this.configurationService.getJsonHandler();
+		JsonGenerator jsonGenerator = jsonHandler.getMapper()
+			.getFactory()
+			.createGenerator(countingOutputStream, JsonEncoding.UTF8);
+		jsonGenerator.writeStartArray();
+
+		int[] identicalCalls = findIdenticalCalls(directRequests);
+
+		if (this.configurationService.getConfiguration()
+			.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.SEQUENTIAL) {
+			ExtDirectResponse[] directResponses = new ExtDirectResponse[directRequests.size()];
+			for (int i = 0; i < directRequests.size(); i++) {
+				ExtDirectRequest directRequest = directRequests.get(i);
+				if (identicalCalls != null && identicalCalls[i] != i) {
+					directResponses[i] = copyResponse(directRequest, directResponses[identicalCalls[i]]);
+				}
+				else {
+					directResponses[i] = handleMethodCall(directRequest, request, response, locale).join();
+				}
+				writeDirectResponse(jsonHandler, jsonGenerator, countingOutputStream, directResponses[i]);
+			}
+		}
+		else {
+			CompletionService<ExtDirectResponse> completionService = new ExecutorCompletionService<>(
+					this.configurationService.getConfiguration().getBatchedMethodsExecutorService());
+			Map<Future<ExtDirectResponse>, Integer> futureIndexes = new HashMap<>();
+			for (int i = 0; i < directRequests.size(); i++) {
+				if (identicalCalls == null || identicalCalls[i] == i) {
+					Callable<CompletableFuture<ExtDirectResponse>> callable = createMethodCallCallable(
+							directRequests.get(i), request, response, locale);
+					futureIndexes.put(completionService.submit(() -> callable.call().join()), i);
+				}
+			}
+
+			for (int i = 0; i < futureIndexes.size(); i++) {
+				try {
+					Future<ExtDirectResponse> future = completionService.take();
+					ExtDirectResponse directResponse = future.get();
+					writeDirectResponse(jsonHandler, jsonGenerator, countingOutputStream, directResponse);
+
+					if (identicalCalls != null) {
+						int index = futureIndexes.get(future);
+						for (int j = index + 1; j < identicalCalls.length; j++) {
+							if (identicalCalls[j] == index) {
+								writeDirectResponse(jsonHandler, jsonGenerator, countingOutputStream,
+										copyResponse(directRequests.get(j), directResponse));
+							}
+						}
+					}
+				}
+				catch (InterruptedException e) {
+					log.error("Error invoking method", e);
+				}
+				catch (ExecutionException e) {
+					log.error("Error invoking method", e);
+				}
+			}
+		}
+
+		jsonGenerator.writeEndArray();
+		jsonGenerator.close();
+
+		if (routerMetrics != null) {
+			routerMetrics.recordResponseSize(countingOutputStream.getCount());
+		}
+	}
+
+	private static void writeDirectResponse(JsonHandler jsonHandler, JsonGenerator jsonGenerator,
+			CountingOutputStream countingOutputStream, ExtDirectResponse directResponse) throws IOException {
+		ObjectMapper objectMapper = jsonHandler.getMapper();
+		long start = countingOutputStream.getCount();
+		Class<?> jsonView = directResponse.getJsonView();
+		if (jsonView == null) {
+			objectMapper.writeValue(jsonGenerator, directResponse);
+		}
+		else {
+			objectMapper.writeValue(jsonGenerator,
+					new ExtDirectResponseRaw(directResponse, jsonHandler.getWriterWithView(jsonView)));
+		}
+		jsonGenerator.flush();
+		if (directResponse.getSizeConsumer() != null) {
+			directResponse.getSizeConsumer().accept(countingOutputStream.getCount() - start);
+		}
+	}
+
+	private Callable<CompletableFuture<ExtDirectResponse>> createMethodCallCallable(
+			final ExtDirectRequest directRequest, final HttpServletRequest request, final HttpServletResponse response,
+			final Locale locale) {
+		RouterMetrics routerMetrics = this.configurationService.getRouterMetrics();
+		if (routerMetrics == null) {
+			return () -> handleMethodCall(directRequest, request, response, locale);
+		}
+		long submitted = System.nanoTime();
+		return () -> {
+			routerMetrics.recordExecutorWait(System.nanoTime() - submitted);
+			return handleMethodCall(directRequest, request, response, locale);
+		};
+	}
+
+	private DeferredResult<ModelAndView> handleMethodCallsSequential(List<ExtDirectRequest> directRequests,
+			HttpServletRequest request, HttpServletResponse response, Locale locale) throws IOException {
+		int[] identicalCalls = findIdenticalCalls(directRequests);
+		List<CompletableFuture<ExtDirectResponse>> directResponses = new ArrayList<>(directRequests.size());
+		for (int i = 0; i < directRequests.size(); i++) {
+			ExtDirectRequest directRequest = directRequests.get(i);
+			if (identicalCalls != null && identicalCalls[i] != i) {
+				directResponses.add(directResponses.get(identicalCalls[i])
+					.thenApply(identicalResponse -> copyResponse(directRequest, identicalResponse)));
+			}
+			else {
+				directResponses.add(handleMethodCall(directRequest, request, response, locale));
+			}
+		}
+		return writeDirectResponsesWhenComplete(directRequests, directResponses, request, response);
+	}
+
+	/**
+	 * Calls the method of the request. The returned future is already complete, unless
+	 * the method returns a {@link CompletionStage} or a {@link DeferredResult} that is
+	 * not yet complete. In that case the result is post-processed and the
+	 * {@link ExtRequestListener}s are notified when the method's result arrives.
+	 */
+	CompletableFuture<ExtDirectResponse> handleMethodCall(ExtDirectRequest directRequest, HttpServletRequest request,
 			HttpServletResponse response, Locale locale) {
+		return handleMethodCall(directRequest, request, response, null, null, locale);
+	}
+
+	/**
+	 * Calls the method of the request like
+	 * {@link #handleMethodCall(ExtDirectRequest, HttpServletRequest, HttpServletResponse, Locale)}.
+	 * A call without a servlet request, like a call over a WebSocket connection, passes
+	 * the session and the principal of its connection. They are used for the session lock
+	 * and the {@link HttpSession} and {@link java.security.Principal} parameters.
+	 */
+	CompletableFuture<ExtDirectResponse> handleMethodCall(ExtDirectRequest directRequest, HttpServletRequest request,
+			HttpServletResponse response, HttpSession session, Principal principal, Locale locale) {
 
 		ExtDirectResponse directResponse = new ExtDirectResponse(directRequest);
+		if (isPhaseTimingEnabled()) {
+			Object parseNanos = request != null ? request.getAttribute(PARSE_NANOS_ATTRIBUTE) : null;
+			directResponse.setTiming(new ExtDirectTiming(parseNanos instanceof Long ? (Long) parseNanos : 0));
+		}
 		notifyExtRequestListenersBeforeRequest(directRequest, directResponse, request, response, locale);
+		RouterMetrics routerMetrics = this.configurationService.getRouterMetrics();
+		long start = directResponse.getTiming() != null ? System.nanoTime() : 0;
+		ExtDirectCallEvent callEvent = ExtDirectCallEvent.beginIfEnabled();
 
+		CompletableFuture<ExtDirectResponse> pendingResponse = null;
 		try {
 			MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
 
@@ -393,69 +979,53 @@ public class RouterController {
 
 				try {
 					directResponse.setStreamResponse(methodInfo.isStreamResponse());
-					Object result = processRemotingRequest(request, response, locale, directRequest, methodInfo);
-
-					if (result != null) {
-
-						ModelAndJsonView modelAndJsonView = null;
-						if (result instanceof ModelAndJsonView) {
-							modelAndJsonView = (ModelAndJsonView) result;
-							result = modelAndJsonView.getModel();
-						}
+					Object result = processRemotingRequest(request, response, session, principal, locale, directRequest,
+							methodInfo, directResponse.getTiming());
 
-						if (methodInfo.isType(ExtDirectMethodType.FORM_LOAD)
-								&& !(result instanceof ExtDirectFormLoadResult)
-								&& !(result instanceof EdFormLoadResult)) {
-							ExtDirectFormLoadResult formLoadResult = new ExtDirectFormLoadResult(result);
-							if (result instanceof JsonViewHint) {
-								formLoadResult.setJsonView(((JsonViewHint) result).getJsonView());
-							}
-							result = formLoadResult;
+					CompletableFuture<Object> asyncResult = toCompletableFuture(result);
+					if (asyncResult != null && !asyncResult.isDone()) {
+						if (methodInfo.getTimeout() > 0) {
+							asyncResult = asyncResult.copy().orTimeout(methodInfo.getTimeout(), TimeUnit.MILLISECONDS);
 						}
-						else if ((methodInfo.isType(ExtDirectMethodType.STORE_MODIFY)
-								|| methodInfo.isType(ExtDirectMethodType.STORE_READ))
-								&& !(result instanceof ExtDirectStoreResult) && !(result instanceof EdStoreResult)
-								&& this.configurationService.getConfiguration().isAlwaysWrapStoreResponse()) {
-							if (result instanceof Collection) {
-								result = new ExtDirectStoreResult((Collection) result);
+						CompletableFuture<ExtDirectResponse> asyncResponse = new CompletableFuture<>();
+						asyncResult.handle((asyncValue, ex) -> {
+							try {
+								if (ex == null) {
+									setMethodResult(directResponse, methodInfo, asyncValue);
+								}
+								else {
+									Exception e = toAsyncException(ex);
+									log.error("Error calling method: " + directRequest.getMethod(), e.getCause());
+									directResponse.setResult(handleException(methodInfo, directResponse, e, request));
+								}
+								return directResponse;
 							}
-							else {
-								result = new ExtDirectStoreResult(result);
+							finally {
+								recordMethodCall(routerMetrics, callEvent, directRequest, directResponse, start);
+								notifyExtRequestListenersAfterRequest(directRequest, directResponse, request, response,
+										locale);
 							}
-						}
-						else if (methodInfo.isType(ExtDirectMethodType.FORM_POST_JSON)) {
-							if (result instanceof ExtDirectFormPostResult) {
-								ExtDirectFormPostResult formPostResult = (ExtDirectFormPostResult) result;
-								result = formPostResult.getResult();
+						}).whenComplete((handledResponse, ex) -> {
+							// the response is not written if the call failed or if a
+							// timeout response already answered it
+							boolean answered = ex == null ? asyncResponse.complete(handledResponse)
+									: asyncResponse.completeExceptionally(ex);
+							if (ex != null || !answered) {
+								discardDirectResponse(directResponse);
 							}
-							else if (result instanceof EdFormPostResult) {
-								EdFormPostResult formPostResult = (EdFormPostResult) result;
-								result = formPostResult.result();
-							}
-						}
-
-						directResponse.setResult(result);
-						if (modelAndJsonView != null) {
-							directResponse.setJsonView(getJsonView(modelAndJsonView, methodInfo.getJsonView()));
-						}
-						else {
-							directResponse.setJsonView(getJsonView(result, methodInfo.getJsonView()));
-						}
-
-					}
-					else {
-						if (methodInfo.isType(ExtDirectMethodType.STORE_MODIFY)
-								|| methodInfo.isType(ExtDirectMethodType.STORE_READ)) {
-							directResponse.setResult(Collections.emptyList());
-						}
+						});
+						pendingResponse = asyncResponse;
+						return pendingResponse;
 					}
 
+					setMethodResult(directResponse, methodInfo, asyncResult != null ? asyncResult.join() : result);
 				}
 				catch (Exception e) {
 					log.error("Error calling method: " + directRequest.getMethod(),
 							e.getCause() != null ? e.getCause() : e);
 					directResponse.setResult(handleException(methodInfo, directResponse, e, request));
 				}
+				recordMethodCall(routerMetrics, callEvent, directRequest, directResponse, start);
 			}
 			else {
 				log.error("Error invoking method '" + directRequest.getAction() + "." + directRequest.getMethod()
@@ -463,13 +1033,167 @@ public class RouterController {
 				handleMethodNotFoundError(directResponse, directRequest.getAction(), directRequest.getMethod());
 			}
 
-			return directResponse;
+			return CompletableFuture.completedFuture(directResponse);
 		}
 		finally {
-			notifyExtRequestListenersAfterRequest(directRequest, directResponse, request, response, locale);
+			if (pendingResponse == null) {
+				notifyExtRequestListenersAfterRequest(directRequest, directResponse, request, response, locale);
+			}
+		}
+	}
+
+	/**
+	 * Called for a response that is never written, it is replaced by a timeout response.
+	 * The size consumer is called with -1, so the flight recorder event of the call is
+	 * still committed.
+	 */
+	private static void discardDirectResponse(ExtDirectResponse directResponse) {
+		if (directResponse.getSizeConsumer() != null) {
+			directResponse.getSizeConsumer().accept(-1);
 		}
 	}
 
+	private void recordMethodCall(RouterMetrics routerMetrics, ExtDirectCallEvent callEvent,
+			ExtDirectRequest directRequest, ExtDirectResponse directResponse, long start) {
+		if (callEvent != null) {
+			callEvent.end();
+			if (callEvent.shouldCommit()) {
+				callEvent.action = directRequest.getAction();
+				callEvent.method = directRequest.getMethod();
+				callEvent.tid = directRequest.getTid();
+				callEvent.type = directResponse.getType();
+				directResponse.setSizeConsumer(resultSize -> {
+					callEvent.resultSize = resultSize;
+					callEvent.commit();
+				});
+			}
+		}
+
+		ExtDirectTiming timing = directResponse.getTiming();
+		if (timing == null) {
+			return;
+		}
+
+		long duration = System.nanoTime() - start;
+		timing.setInvokeNanos(duration - timing.getResolveNanos());
+		if (routerMetrics != null) {
+			routerMetrics.recordMethodCall(directRequest.getAction(), directRequest.getMethod(), duration,
+					"exception".equals(directResponse.getType()));
+			routerMetrics.recordPhase("resolve", timing.getResolveNanos());
+			routerMetrics.recordPhase("invoke", timing.getInvokeNanos());
+		}
+	}
+
+	/**
+	 * The phases of the calls are measured if something consumes the measurements.
+	 */
+	private boolean isPhaseTimingEnabled() {
+		return this.configurationService.getRouterMetrics() != null
+				|| this.configurationService.getConfiguration().isServerTiming()
+				|| this.extRequestListeners != null && !this.extRequestListeners.isEmpty();
+	}
+
+	private static String serverTiming(String phase, long nanos) {
+		return String.format(Locale.ROOT, "%s;dur=%.3f", phase, nanos / 1_000_000.0);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void setMethodResult(ExtDirectResponse directResponse, MethodInfo methodInfo, Object methodResult) {
+		Object result = methodResult;
+		if (result != null) {
+
+			ModelAndJsonView modelAndJsonView = null;
+			if (result instanceof ModelAndJsonView) {
+				modelAndJsonView = (ModelAndJsonView) result;
+				result = modelAndJsonView.getModel();
+			}
+
+			if (methodInfo.isType(ExtDirectMethodType.FORM_LOAD) && !(result instanceof ExtDirectFormLoadResult)
+					&& !(result instanceof EdFormLoadResult)) {
+				ExtDirectFormLoadResult formLoadResult = new ExtDirectFormLoadResult(result);
+				if (result instanceof JsonViewHint) {
+					formLoadResult.setJsonView(((JsonViewHint) result).getJsonView());
+				}
+				result = formLoadResult;
+			}
+			else if ((methodInfo.isType(ExtDirectMethodType.STORE_MODIFY)
+					|| methodInfo.isType(ExtDirectMethodType.STORE_READ)) && !(result instanceof ExtDirectStoreResult)
+					&& !(result instanceof EdStoreResult)
+					&& this.configurationService.getConfiguration().isAlwaysWrapStoreResponse()) {
+				if (result instanceof Collection) {
+					result = new ExtDirectStoreResult((Collection) result);
+				}
+				else {
+					result = new ExtDirectStoreResult(result);
+				}
+			}
+			else if (methodInfo.isType(ExtDirectMethodType.FORM_POST_JSON)) {
+				if (result instanceof ExtDirectFormPostResult) {
+					ExtDirectFormPostResult formPostResult = (ExtDirectFormPostResult) result;
+					result = formPostResult.getResult();
+				}
+				else if (result instanceof EdFormPostResult) {
+					EdFormPostResult formPostResult = (EdFormPostResult) result;
+					result = formPostResult.result();
+				}
+			}
+
+			directResponse.setResult(result);
+			if (modelAndJsonView != null) {
+				directResponse.setJsonView(getJsonView(modelAndJsonView, methodInfo.getJsonView()));
+			}
+			else {
+				directResponse.setJsonView(getJsonView(result, methodInfo.getJsonView()));
+			}
+
+		}
+		else {
+			if (methodInfo.isType(ExtDirectMethodType.STORE_MODIFY)
+					|| methodInfo.isType(ExtDirectMethodType.STORE_READ)) {
+				directResponse.setResult(Collections.emptyList());
+			}
+		}
+	}
+
+	/**
+	 * Adapts the asynchronous return types {@link CompletionStage} and
+	 * {@link DeferredResult} to a {@link CompletableFuture}. The timeout of a
+	 * DeferredResult is not honoured, only the {@link ExtDirectMethod#timeout()} of the
+	 * method limits how long the router waits for the result.
+	 * @return null if the result is not asynchronous
+	 */
+	@SuppressWarnings("unchecked")
+	private static CompletableFuture<Object> toCompletableFuture(Object result) {
+		if (result instanceof CompletionStage) {
+			return ((CompletionStage<Object>) result).toCompletableFuture();
+		}
+		if (result instanceof DeferredResult) {
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			((DeferredResult<?>) result).setResultHandler(value -> {
+				if (value instanceof Throwable) {
+					future.completeExceptionally((Throwable) value);
+				}
+				else {
+					future.complete(value);
+				}
+			});
+			return future;
+		}
+		return null;
+	}
+
+	/**
+	 * Wraps the failure of an asynchronous result into a {@link CompletionException}, so
+	 * the {@link RouterExceptionHandler} finds the cause the same way as the cause of the
+	 * InvocationTargetException of a synchronous call.
+	 */
+	private static Exception toAsyncException(Throwable ex) {
+		if (ex instanceof CompletionException && ex.getCause() != null) {
+			return (CompletionException) ex;
+		}
+		return new CompletionException(ex);
+	}
+
 	private void notifyExtRequestListenersBeforeRequest(ExtDirectRequest directRequest,
 			ExtDirectResponse directResponse, HttpServletRequest request, HttpServletResponse response, Locale locale) {
 		if (this.extRequestListeners != null) {
@@ -500,41 +1224,66 @@ public class RouterController {
 		writeJsonResponse(response, responseObject, jsonView, streamResponse, false);
 	}
 
-	@SuppressWarnings("resource")
+	private static void writeJsonResponse(HttpServletResponse response, byte[] json) throws IOException {
+		response.setContentType(APPLICATION_JSON.toString());
+		response.setCharacterEncoding(APPLICATION_JSON.getCharset().name());
+		response.setContentLength(json.length);
+		response.getOutputStream().write(json);
+	}
+
 	public void writeJsonResponse(HttpServletResponse response, Object responseObject, Class<?> jsonView,
 			boolean streamResponse, boolean isMultipart) throws IOException {
+		writeJsonResponse(response, responseObject, jsonView, streamResponse, isMultipart, null);
+	}
 
-		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
+	/**
+	 * @param sizeConsumers if not null the response object is a list, its elements are
+	 * written one by one and the consumer with the same index, if not null, is called
+	 * with the size of the serialized element
+	 */
+	@SuppressWarnings("resource")
+	private void writeJsonResponse(HttpServletResponse response, Object responseObject, Class<?> jsonView,
+			boolean streamResponse, boolean isMultipart, List<LongConsumer> sizeConsumers) throws IOException {
+
+		JsonHandler jsonHandler = this.configurationService.getJsonHandler();
+		ObjectMapper objectMapper = jsonHandler.getMapper();
+		RouterMetrics routerMetrics = this.configurationService.getRouterMetrics();
+		boolean serverTiming = this.configurationService.getConfiguration().isServerTiming();
+		long serializeStart = routerMetrics != null || serverTiming ? System.nanoTime() : 0;
 
 		if (isMultipart) {
 			response.setContentType(RouterController.TEXT_HTML.toString());
 			response.setCharacterEncoding(RouterController.TEXT_HTML.getCharset().name());
 
-			ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
-			bos.write("<html><body><textarea>".getBytes(ExtDirectSpringUtil.UTF8_CHARSET));
+			try (PooledOutputStream bos = this.configurationService.getOutputBufferPool().newOutputStream()) {
+				bos.write("<html><body><textarea>".getBytes(ExtDirectSpringUtil.UTF8_CHARSET));
 
-			String responseJson;
-			if (jsonView == null) {
-				responseJson = objectMapper.writeValueAsString(responseObject);
-			}
-			else {
-				responseJson = objectMapper.writerWithView(jsonView).writeValueAsString(responseObject);
-			}
+				try (JsonGenerator jsonGenerator = objectMapper.getFactory()
+					.createGenerator(new TextareaEscapingOutputStream(bos), JsonEncoding.UTF8)) {
+					if (jsonView == null) {
+						objectMapper.writeValue(jsonGenerator, responseObject);
+					}
+					else {
+						jsonHandler.getWriterWithView(jsonView).writeValue(jsonGenerator, responseObject);
+					}
+				}
 
-			responseJson = responseJson.replace("&quot;", "\\&quot;");
-			bos.write(responseJson.getBytes(ExtDirectSpringUtil.UTF8_CHARSET));
+				String frameDomain = this.configurationService.getConfiguration().getFrameDomain();
+				String frameDomainScript = "";
+				if (frameDomain != null) {
+					frameDomainScript = String
+						.format(this.configurationService.getConfiguration().getFrameDomainScript(), frameDomain);
+				}
+				bos.write(("</textarea>" + frameDomainScript + "</body></html>")
+					.getBytes(ExtDirectSpringUtil.UTF8_CHARSET));
+				recordSerialize(response, routerMetrics, serverTiming, serializeStart);
 
-			String frameDomain = this.configurationService.getConfiguration().getFrameDomain();
-			String frameDomainScript = "";
-			if (frameDomain != null) {
-				frameDomainScript = String.format(this.configurationService.getConfiguration().getFrameDomainScript(),
-						frameDomain);
+				response.setContentLength(bos.size());
+				bos.writeTo(response.getOutputStream());
+				if (routerMetrics != null) {
+					routerMetrics.recordResponseSize(bos.size());
+				}
 			}
-			bos.write(
-					("</textarea>" + frameDomainScript + "</body></html>").getBytes(ExtDirectSpringUtil.UTF8_CHARSET));
-
-			response.setContentLength(bos.size());
-			FileCopyUtils.copy(bos.toByteArray(), response.getOutputStream());
 		}
 		else {
 
@@ -544,56 +1293,168 @@ public class RouterController {
 			ServletOutputStream outputStream = response.getOutputStream();
 
 			if (!streamResponse) {
-				ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
-				JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(bos, JsonEncoding.UTF8);
-
-				if (jsonView == null) {
-					objectMapper.writeValue(jsonGenerator, responseObject);
-				}
-				else {
-					objectMapper.writerWithView(jsonView).writeValue(jsonGenerator, responseObject);
+				try (PooledOutputStream bos = this.configurationService.getOutputBufferPool().newOutputStream();
+						JsonGenerator jsonGenerator = objectMapper.getFactory()
+							.createGenerator(bos, JsonEncoding.UTF8)) {
+
+					writeValue(jsonHandler, jsonGenerator, responseObject, jsonView, sizeConsumers, bos::size);
+					jsonGenerator.flush();
+					recordSerialize(response, routerMetrics, serverTiming, serializeStart);
+
+					response.setContentLength(bos.size());
+					bos.writeTo(outputStream);
+					if (routerMetrics != null) {
+						routerMetrics.recordResponseSize(bos.size());
+					}
 				}
-
-				response.setContentLength(bos.size());
-				outputStream.write(bos.toByteArray());
-				jsonGenerator.close();
 			}
 			else {
+				CountingOutputStream countingOutputStream = routerMetrics != null || sizeConsumers != null
+						? new CountingOutputStream(outputStream) : null;
 				JsonGenerator jsonGenerator = objectMapper.getFactory()
-					.createGenerator(outputStream, JsonEncoding.UTF8);
-				if (jsonView == null) {
-					objectMapper.writeValue(jsonGenerator, responseObject);
-				}
-				else {
-					objectMapper.writerWithView(jsonView).writeValue(jsonGenerator, responseObject);
-				}
+					.createGenerator(countingOutputStream != null ? countingOutputStream : outputStream,
+							JsonEncoding.UTF8);
+				writeValue(jsonHandler, jsonGenerator, responseObject, jsonView, sizeConsumers,
+						countingOutputStream != null ? countingOutputStream::getCount : null);
 				jsonGenerator.close();
+				if (routerMetrics != null) {
+					routerMetrics.recordResponseSize(countingOutputStream.getCount());
+				}
+				// the body is already sent, too late for a header
+				recordSerialize(response, routerMetrics, false, serializeStart);
 			}
 
 			outputStream.flush();
 		}
 	}
 
-	private Object processRemotingRequest(HttpServletRequest request, HttpServletResponse response, Locale locale,
-			ExtDirectRequest directRequest, MethodInfo methodInfo) throws Exception {
+	private static void writeValue(JsonHandler jsonHandler, JsonGenerator jsonGenerator, Object responseObject,
+			Class<?> jsonView, List<LongConsumer> sizeConsumers, LongSupplier position) throws IOException {
+		ObjectMapper objectMapper = jsonHandler.getMapper();
+		if (sizeConsumers != null) {
+			// flushing would send every element as its own chunk, the size is measured
+			// from the written and the buffered bytes instead
+			ObjectWriter elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			List<?> elements = (List<?>) responseObject;
+			jsonGenerator.writeStartArray();
+			for (int i = 0; i < elements.size(); i++) {
+				long start = position.getAsLong() + jsonGenerator.getOutputBuffered();
+				elementWriter.writeValue(jsonGenerator, elements.get(i));
+				if (sizeConsumers.get(i) != null) {
+					sizeConsumers.get(i).accept(position.getAsLong() + jsonGenerator.getOutputBuffered() - start);
+				}
+			}
+			jsonGenerator.writeEndArray();
+		}
+		else if (jsonView == null) {
+			objectMapper.writeValue(jsonGenerator, responseObject);
+		}
+		else {
+			jsonHandler.getWriterWithView(jsonView).writeValue(jsonGenerator, responseObject);
+		}
+	}
 
-		Object[] parameters = this.configurationService.getParametersResolver()
-			.resolveParameters(request, response, locale, directRequest, methodInfo);
+	private static void recordSerialize(HttpServletResponse response, RouterMetrics routerMetrics, boolean serverTiming,
+			long start) {
+		if (routerMetrics != null || serverTiming) {
+			long serializeNanos = System.nanoTime() - start;
+			if (routerMetrics != null) {
+				routerMetrics.recordPhase("serialize", serializeNanos);
+			}
+			if (serverTiming) {
+				response.addHeader(SERVER_TIMING_HEADER, serverTiming("serialize", serializeNanos));
+			}
+		}
+	}
 
-		if (this.configurationService.getConfiguration().isSynchronizeOnSession()
-				|| methodInfo.isSynchronizeOnSession()) {
-			HttpSession session = request.getSession(false);
-			if (session != null) {
-				Object mutex = WebUtils.getSessionMutex(session);
-				synchronized (mutex) {
-					return ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
-							directRequest.getAction(), methodInfo, parameters);
-				}
+	private Object processRemotingRequest(HttpServletRequest request, HttpServletResponse response, HttpSession session,
+			Principal principal, Locale locale, ExtDirectRequest directRequest, MethodInfo methodInfo,
+			ExtDirectTiming timing) throws Exception {
+
+		long resolveStart = timing != null ? System.nanoTime() : 0;
+		ParametersResolver parametersResolver = this.configurationService.getParametersResolver();
+		Object[] parameters = parametersResolver.resolveParameters(request, response, locale, directRequest,
+				methodInfo);
+		if (request == null) {
+			parametersResolver.resolveSessionParameters(parameters, methodInfo, session, principal);
+		}
+		if (timing != null) {
+			timing.setResolveNanos(System.nanoTime() - resolveStart);
+		}
+
+		MethodResultCache resultCache = methodInfo.getResultCache();
+		MethodCallCoalescer coalescer = null;
+		if (methodInfo.isIdempotent() && methodInfo.getMethod() != null && !methodInfo.hasServletParameter()
+				&& !DeferredResult.class.isAssignableFrom(methodInfo.getMethod().getReturnType())) {
+			coalescer = this.configurationService.getMethodCallCoalescer();
+		}
+
+		MethodCallKey callKey = null;
+		if (resultCache != null || coalescer != null) {
+			callKey = MethodResultCache.createKey(directRequest.getAction(), directRequest.getMethod(), parameters);
+		}
+
+		if (resultCache != null) {
+			Object cachedResult = resultCache.get(callKey);
+			if (cachedResult != null) {
+				return cachedResult;
+			}
+		}
+
+		HttpSession lockSession = request != null ? request.getSession(false) : session;
+		Object result;
+		if (coalescer != null) {
+			result = coalescer.execute(callKey, () -> invokeMethod(lockSession, directRequest, methodInfo, parameters));
+		}
+		else {
+			result = invokeMethod(lockSession, directRequest, methodInfo, parameters);
+		}
+
+		if (resultCache != null && !(result instanceof CompletionStage) && !(result instanceof DeferredResult)) {
+			resultCache.put(callKey, result);
+		}
+
+		return result;
+	}
+
+	private Object invokeMethod(HttpSession session, ExtDirectRequest directRequest, MethodInfo methodInfo,
+			Object[] parameters) throws Exception {
+
+		return callSynchronizedOnSession(session, methodInfo,
+				() -> ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
+						directRequest.getAction(), methodInfo, parameters));
+	}
+
+	/**
+	 * Runs the callable while holding the lock of the session the method needs according
+	 * to {@link MethodInfo#getSessionAccess()} and
+	 * {@link Configuration#isSynchronizeOnSession()}. Without a session or if the method
+	 * is not synchronized the callable runs without a lock. The
+	 * {@link SessionLockManager} does not synchronize on the session mutex, so a waiting
+	 * virtual thread does not pin its carrier thread.
+	 */
+	private <T> T callSynchronizedOnSession(HttpServletRequest request, MethodInfo methodInfo, Callable<T> callable)
+			throws Exception {
+		return callSynchronizedOnSession(request != null ? request.getSession(false) : null, methodInfo, callable);
+	}
+
+	private <T> T callSynchronizedOnSession(HttpSession session, MethodInfo methodInfo, Callable<T> callable)
+			throws Exception {
+		SessionAccess sessionAccess = methodInfo.getSessionAccess();
+		if (sessionAccess == SessionAccess.DEFAULT
+				&& this.configurationService.getConfiguration().isSynchronizeOnSession()) {
+			sessionAccess = SessionAccess.EXCLUSIVE;
+		}
+
+		if (sessionAccess != SessionAccess.DEFAULT && session != null) {
+			SessionLockManager sessionLockManager = this.configurationService.getSessionLockManager();
+			if (sessionAccess == SessionAccess.SHARED) {
+				return sessionLockManager.callShared(session.getId(), callable);
 			}
+			return sessionLockManager.callExclusive(session.getId(), callable);
 		}
 
-		return ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(), directRequest.getAction(),
-				methodInfo, parameters);
+		return callable.call();
 	}
 
 	private Object handleException(MethodInfo methodInfo, BaseResponse response, Exception e,
@@ -601,7 +1462,7 @@ public class RouterController {
 		return this.configurationService.getRouterExceptionHandler().handleException(methodInfo, response, e, request);
 	}
 
-	private void handleMethodNotFoundError(BaseResponse response, String beanName, String methodName) {
+	void handleMethodNotFoundError(BaseResponse response, String beanName, String methodName) {
 		response.setType("exception");
 		response.setMessage(this.configurationService.getConfiguration().getDefaultExceptionMessage());
 
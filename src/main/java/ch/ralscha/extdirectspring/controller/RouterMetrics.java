@@ -0,0 +1,71 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+/**
+ * Receives measurements of the router. An implementation must be thread safe and fast,
+ * the methods are called on the request threads.
+ * <p>
+ * A bean of this type in the application context is picked up by the
+ * {@link ConfigurationService}. Without such a bean an {@link InMemoryRouterMetrics} is
+ * used if {@link Configuration#setRouterMetrics(boolean)} is true.
+ */
+public interface RouterMetrics {
+
+	/**
+	 * Called after a call of an existing method finished.
+	 * @param action the name of the bean
+	 * @param method the name of the method
+	 * @param durationNanos the time between the start of the call and the completion of
+	 * the response in nanoseconds
+	 * @param error true if the response is an exception
+	 */
+	void recordMethodCall(String action, String method, long durationNanos, boolean error);
+
+	/**
+	 * Called for every request to the router with the number of Ext Direct requests in
+	 * the body. A request that is not batched has the size 1.
+	 */
+	void recordBatchSize(int size);
+
+	/**
+	 * Called when a batched call that was submitted to the executor of a concurrent batch
+	 * starts running.
+	 * @param waitNanos the time the call waited in the queue of the executor in
+	 * nanoseconds
+	 */
+	void recordExecutorWait(long waitNanos);
+
+	/**
+	 * Called after a JSON response has been written.
+	 * @param bytes the size of the response body
+	 */
+	void recordResponseSize(long bytes);
+
+	/**
+	 * Called after a phase of the request processing finished. The phases are "parse"
+	 * (reading the request body), "resolve" (resolving the parameters of a call), "invoke"
+	 * (calling the method) and "serialize" (writing the JSON response).
+	 * <p>
+	 * The default implementation ignores the measurement.
+	 * @param phase the name of the phase
+	 * @param durationNanos the duration of the phase in nanoseconds
+	 */
+	default void recordPhase(String phase, long durationNanos) {
+		// ignore
+	}
+
+}
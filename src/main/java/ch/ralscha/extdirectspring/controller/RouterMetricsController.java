@@ -0,0 +1,67 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.IOException;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import ch.ralscha.extdirectspring.util.ExtDirectSpringUtil;
+
+/**
+ * Returns the snapshot of the {@link InMemoryRouterMetrics} as JSON. The endpoint
+ * answers with 404 if the router metrics are disabled or if a custom
+ * {@link RouterMetrics} is used. The endpoint is not secured, applications that enable
+ * the metrics should restrict access to it.
+ */
+@Controller
+public class RouterMetricsController {
+
+	private final ConfigurationService configurationService;
+
+	@Autowired
+	public RouterMetricsController(ConfigurationService configurationService) {
+		this.configurationService = configurationService;
+	}
+
+	@RequestMapping(value = "/router-metrics", method = RequestMethod.GET)
+	public void metrics(HttpServletResponse response) throws IOException {
+		RouterMetrics routerMetrics = this.configurationService.getRouterMetrics();
+		if (!(routerMetrics instanceof InMemoryRouterMetrics)) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		String json = this.configurationService.getJsonHandler()
+			.writeValueAsString(((InMemoryRouterMetrics) routerMetrics).getSnapshot(), true);
+		byte[] outputBytes = json.getBytes(ExtDirectSpringUtil.UTF8_CHARSET);
+
+		response.setContentType(RouterController.APPLICATION_JSON.toString());
+		response.setCharacterEncoding(RouterController.APPLICATION_JSON.getCharset().name());
+		response.setContentLength(outputBytes.length);
+
+		ServletOutputStream outputStream = response.getOutputStream();
+		outputStream.write(outputBytes);
+		outputStream.flush();
+	}
+
+}
@@ -19,12 +19,10 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
@@ -33,7 +31,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.ApplicationContext;
 import org.springframework.util.Assert;
 import org.springframework.util.DigestUtils;
-import org.springframework.util.ReflectionUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -84,23 +81,16 @@ public final class ExtDirectSpringUtil {
 	 * @param methodInfo the methodInfo object
 	 * @param params the parameters
 	 * @return the result of the method invocation
-	 * @throws IllegalArgumentException if there is no bean in the context
+	 * @throws IllegalArgumentException if methodInfo is null or there is no bean in the
+	 * context
 	 * @throws IllegalAccessException
 	 * @throws InvocationTargetException
 	 */
 	public static Object invoke(ApplicationContext context, String beanName, MethodInfo methodInfo,
 			final Object[] params) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		Object bean = context.getBean(beanName);
-
-		Method handlerMethod = methodInfo.getMethod();
-		ReflectionUtils.makeAccessible(handlerMethod);
-		Object result = handlerMethod.invoke(bean, params);
-
-		if (result != null && result instanceof Optional) {
-			return ((Optional<?>) result).orElse(null);
-		}
-
-		return result;
+		Assert.notNull(methodInfo, "methodInfo must not be null");
+		Object bean = methodInfo.getBean(context, beanName);
+		return methodInfo.getInvoker().invoke(bean, params);
 	}
 
 	public static Object invoke(HttpServletRequest request, HttpServletResponse response, Locale locale,
@@ -0,0 +1,112 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of non-negative long values. Values below 16 are counted exactly,
+ * larger values in buckets with a relative width of 12.5%, eight buckets per power of
+ * two. Percentiles are therefore at most 12.5% too high.
+ */
+public final class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(bucketIndex(Long.MAX_VALUE) + 1);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Records a value, negative values are recorded as 0.
+	 */
+	public void record(long value) {
+		long v = Math.max(value, 0);
+		this.buckets.incrementAndGet(bucketIndex(v));
+		this.count.increment();
+		this.sum.add(v);
+		this.max.accumulate(v);
+	}
+
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	public long getSum() {
+		return this.sum.sum();
+	}
+
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * @param percentile the percentile between 0 and 100
+	 * @return the upper bound of the bucket that contains the value at the given
+	 * percentile, 0 if no value was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] counts = new long[this.buckets.length()];
+		long total = 0;
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = this.buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		long threshold = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long cumulative = 0;
+		for (int i = 0; i < counts.length; i++) {
+			cumulative += counts[i];
+			if (cumulative >= threshold) {
+				return Math.min(bucketUpperBound(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	static int bucketIndex(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+		int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+		long width = 1L << (exponent - SUB_BUCKET_BITS);
+		return (SUB_BUCKETS + subBucket) * width + width - 1;
+	}
+
+}
@@ -16,21 +16,48 @@
 package ch.ralscha.extdirectspring.util;
 
 import java.io.InputStream;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.LogFactory;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.util.Assert;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.TypeBindings;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
 
 /**
  * Object contains an {@link ObjectMapper} and provides convenient methods.
+ * <p>
+ * The {@link ObjectWriter} instances for json views and the {@link ObjectReader}
+ * instances for parameter types are built once and cached. The caches are cleared when a
+ * new mapper is set with {@link #setMapper(ObjectMapper)}, changes to the configuration
+ * of the current mapper are not seen by writers and readers that are already cached.
  */
 public class JsonHandler {
 
 	private ObjectMapper mapper;
 
+	private final ConcurrentMap<Class<?>, ObjectWriter> viewWriters = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<TypeDescriptor, ObjectReader> readers = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<TypeDescriptor, JavaType> javaTypes = new ConcurrentHashMap<>();
+
 	public JsonHandler() {
 		this.mapper = new ObjectMapper();
 	}
@@ -47,6 +74,9 @@ public class JsonHandler {
 		Assert.notNull(mapper, "ObjectMapper must not be null");
 
 		this.mapper = mapper;
+		this.viewWriters.clear();
+		this.readers.clear();
+		this.javaTypes.clear();
 	}
 
 	/**
@@ -142,6 +172,35 @@ public class JsonHandler {
 		}
 	}
 
+	/**
+	 * Reads the body of a router call. The body contains either one request object or an
+	 * array of request objects (batched call). Every request is bound directly from the
+	 * token stream, without building an intermediate object tree first. In case of an
+	 * exception returns null and logs the exception.
+	 * @param is a InputStream
+	 * @return the requests, null if the body is neither an object nor an array or if
+	 * there is an exception
+	 */
+	public List<ExtDirectRequest> readDirectRequests(InputStream is) {
+		try (JsonParser parser = this.mapper.getFactory().createParser(is)) {
+			JsonToken token = parser.nextToken();
+			if (token == JsonToken.START_OBJECT) {
+				return Collections.singletonList(this.mapper.readValue(parser, ExtDirectRequest.class));
+			}
+			else if (token == JsonToken.START_ARRAY) {
+				List<ExtDirectRequest> directRequests = new ArrayList<>();
+				while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+					directRequests.add(this.mapper.readValue(parser, ExtDirectRequest.class));
+				}
+				return directRequests;
+			}
+		}
+		catch (Exception e) {
+			LogFactory.getLog(JsonHandler.class).info("deserialize json to object", e);
+		}
+		return null;
+	}
+
 	/**
 	 * Converts one object into another.
 	 * @param object the source
@@ -162,4 +221,62 @@ public class JsonHandler {
 		return this.mapper.convertValue(object, toValueTypeRef);
 	}
 
+	/**
+	 * Returns a cached {@link ObjectWriter} that serializes with the given json view.
+	 * @param jsonView the view class, must not be <code>null</code>
+	 * @return the writer
+	 */
+	public ObjectWriter getWriterWithView(Class<?> jsonView) {
+		return this.viewWriters.computeIfAbsent(jsonView, this.mapper::writerWithView);
+	}
+
+	/**
+	 * Returns a cached {@link ObjectReader} for the given type.
+	 * @param typeDescriptor the type of the values to read, including its generic
+	 * parameters
+	 * @return the reader
+	 */
+	public ObjectReader getReader(TypeDescriptor typeDescriptor) {
+		return this.readers.computeIfAbsent(typeDescriptor, key -> this.mapper
+			.readerFor(this.mapper.getTypeFactory().constructType(key.getResolvableType().getType())));
+	}
+
+	/**
+	 * Returns the cached {@link JavaType} that {@link #convertValue(Object, JavaType)}
+	 * uses to convert a value into the given type. Collections and arrays are
+	 * constructed from the raw type and the resolved type of their elements.
+	 * @param typeDescriptor the type of the target
+	 * @return the java type
+	 */
+	public JavaType getJavaType(TypeDescriptor typeDescriptor) {
+		return this.javaTypes.computeIfAbsent(typeDescriptor,
+				key -> constructType(this.mapper.getTypeFactory(), key));
+	}
+
+	private static JavaType constructType(TypeFactory typeFactory, TypeDescriptor typeDescriptor) {
+		if (typeDescriptor.isCollection()) {
+			Class<?> rawType = typeDescriptor.getType();
+			JavaType elemType = typeFactory.constructType(typeDescriptor.getElementTypeDescriptor().getType());
+			TypeVariable<?>[] vars = rawType.getTypeParameters();
+			TypeBindings bindings;
+			if (vars == null || vars.length != 1) {
+				bindings = TypeBindings.emptyBindings();
+			}
+			else {
+				bindings = TypeBindings.create(rawType, elemType);
+			}
+			JavaType superClass = null;
+			Class<?> parent = rawType.getSuperclass();
+			if (parent != null) {
+				superClass = TypeFactory.unknownType();
+			}
+
+			return CollectionType.construct(rawType, bindings, superClass, null, elemType);
+		}
+		else if (typeDescriptor.isArray()) {
+			return typeFactory.constructArrayType(typeDescriptor.getElementTypeDescriptor().getType());
+		}
+		return typeFactory.constructType(typeDescriptor.getResolvableType().getType());
+	}
+
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collapses concurrent identical method calls into one execution. While a call with a
+ * given {@link MethodCallKey} is in flight, further calls with the same key wait for and
+ * share its result or exception instead of invoking the method again.
+ */
+public final class MethodCallCoalescer {
+
+	private final ConcurrentMap<MethodCallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder executions = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	/**
+	 * Executes the callable unless a call with the same key is already in flight. In
+	 * that case waits for the running call and returns its result.
+	 */
+	public Object execute(MethodCallKey key, Callable<Object> callable) throws Exception {
+		CompletableFuture<Object> call = new CompletableFuture<>();
+		CompletableFuture<Object> runningCall = this.inFlight.putIfAbsent(key, call);
+
+		if (runningCall != null) {
+			this.coalesced.increment();
+			try {
+				return runningCall.get();
+			}
+			catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw e;
+			}
+		}
+
+		this.executions.increment();
+		try {
+			Object result = callable.call();
+			call.complete(result);
+			return result;
+		}
+		catch (Exception | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			this.inFlight.remove(key, call);
+		}
+	}
+
+	/**
+	 * @return number of calls that invoked the method
+	 */
+	public long getExecutionCount() {
+		return this.executions.sum();
+	}
+
+	/**
+	 * @return number of calls that shared the result of a call in flight
+	 */
+	public long getCoalescedCount() {
+		return this.coalesced.sum();
+	}
+
+	/**
+	 * @return number of calls currently in flight
+	 */
+	public int getInFlightCount() {
+		return this.inFlight.size();
+	}
+
+}
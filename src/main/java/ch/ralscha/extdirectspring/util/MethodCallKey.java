@@ -0,0 +1,64 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.Arrays;
+
+/**
+ * Identifies a call of a remote method by the name of the bean, the name of the method
+ * and its arguments. Arrays among the arguments are compared by their content.
+ */
+public final class MethodCallKey {
+
+	private final String beanName;
+
+	private final String method;
+
+	private final Object[] arguments;
+
+	private final int hashCode;
+
+	public MethodCallKey(String beanName, String method, Object... arguments) {
+		this.beanName = beanName;
+		this.method = method;
+		this.arguments = arguments;
+		this.hashCode = Arrays.deepHashCode(new Object[] { beanName, method, arguments });
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof MethodCallKey)) {
+			return false;
+		}
+
+		MethodCallKey other = (MethodCallKey) o;
+		return this.hashCode == other.hashCode && ExtDirectSpringUtil.equal(this.beanName, other.beanName)
+				&& ExtDirectSpringUtil.equal(this.method, other.method)
+				&& Arrays.deepEquals(this.arguments, other.arguments);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return "MethodCallKey [beanName=" + this.beanName + ", method=" + this.method + ", arguments="
+				+ Arrays.deepToString(this.arguments) + "]";
+	}
+
+}
@@ -29,11 +29,14 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.method.HandlerMethod;
 
+import ch.ralscha.extdirectspring.annotation.ExtDirectCacheable;
 import ch.ralscha.extdirectspring.annotation.ExtDirectDocParameters;
 import ch.ralscha.extdirectspring.annotation.ExtDirectDocReturn;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethodDocumentation;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.annotation.ExtDirectSharedPoll;
+import ch.ralscha.extdirectspring.annotation.SessionAccess;
 import ch.ralscha.extdirectspring.bean.api.Action;
 import ch.ralscha.extdirectspring.bean.api.ActionDoc;
 import ch.ralscha.extdirectspring.bean.api.PollingProvider;
@@ -52,12 +55,28 @@ public final class MethodInfo {
 
 	private final boolean synchronizeOnSession;
 
+	private final SessionAccess sessionAccess;
+
 	private final boolean streamResponse;
 
+	private final long timeout;
+
+	private final boolean idempotent;
+
+	private final boolean servletParameter;
+
+	private final MethodResultCache resultCache;
+
+	private final long sharedPollInterval;
+
 	private List<ParameterInfo> parameters;
 
 	private Method method;
 
+	private MethodInvoker invoker;
+
+	private volatile ResolvedBean resolvedBean;
+
 	private String forwardPath;
 
 	private HandlerMethod handlerMethod;
@@ -89,10 +108,36 @@ public final class MethodInfo {
 		}
 
 		this.synchronizeOnSession = extDirectMethodAnnotation.synchronizeOnSession();
+		if (extDirectMethodAnnotation.sessionAccess() == SessionAccess.DEFAULT && this.synchronizeOnSession) {
+			this.sessionAccess = SessionAccess.EXCLUSIVE;
+		}
+		else {
+			this.sessionAccess = extDirectMethodAnnotation.sessionAccess();
+		}
 		this.streamResponse = extDirectMethodAnnotation.streamResponse();
+		this.timeout = extDirectMethodAnnotation.timeout();
+		this.idempotent = extDirectMethodAnnotation.idempotent();
+
+		this.servletParameter = hasServletParameter(method);
+
+		ExtDirectCacheable cacheableAnnotation = AnnotationUtils.findAnnotation(method, ExtDirectCacheable.class);
+		if (cacheableAnnotation != null && this.servletParameter) {
+			LogFactory.getLog(MethodInfo.class)
+				.warn("@ExtDirectCacheable is ignored on method '" + beanName + "." + method.getName()
+						+ "', because it has a request, response or session parameter");
+			this.resultCache = null;
+		}
+		else {
+			this.resultCache = cacheableAnnotation != null ? new MethodResultCache(cacheableAnnotation) : null;
+		}
+
+		ExtDirectSharedPoll sharedPollAnnotation = AnnotationUtils.findAnnotation(method, ExtDirectSharedPoll.class);
+		this.sharedPollInterval = sharedPollAnnotation != null
+				? sharedPollAnnotation.timeUnit().toNanos(sharedPollAnnotation.refreshInterval()) : 0;
 
 		if (this.type != ExtDirectMethodType.FORM_POST) {
 			this.method = method;
+			this.invoker = new MethodInvoker(method);
 			this.parameters = buildParameterList(clazz, method);
 
 			this.collectionType = extDirectMethodAnnotation.entryClass() == Object.class ? null
@@ -276,6 +321,38 @@ public final class MethodInfo {
 		return this.method;
 	}
 
+	/**
+	 * @return the precompiled invoker of {@link #getMethod()}, null for FORM_POST methods
+	 */
+	public MethodInvoker getInvoker() {
+		return this.invoker;
+	}
+
+	/**
+	 * Returns the bean the method is invoked on. Singleton beans (including scoped
+	 * proxies, which are singletons themselves) are looked up once and then cached
+	 * together with the context they come from. Beans of all other scopes are looked up
+	 * in the context on every call.
+	 * <p>
+	 * A context refresh re-registers all methods and therefore starts with an empty
+	 * cache.
+	 * @param context the Spring application context
+	 * @param beanName the name of the bean
+	 * @return the bean instance
+	 */
+	public Object getBean(ApplicationContext context, String beanName) {
+		ResolvedBean resolved = this.resolvedBean;
+		if (resolved != null && resolved.context == context && resolved.beanName.equals(beanName)) {
+			return resolved.bean;
+		}
+
+		Object bean = context.getBean(beanName);
+		if (context.isSingleton(beanName)) {
+			this.resolvedBean = new ResolvedBean(context, beanName, bean);
+		}
+		return bean;
+	}
+
 	public String getForwardPath() {
 		return this.forwardPath;
 	}
@@ -304,10 +381,56 @@ public final class MethodInfo {
 		return this.synchronizeOnSession;
 	}
 
+	/**
+	 * @return how the method is synchronized on the session, EXCLUSIVE if
+	 * {@link #isSynchronizeOnSession()} is true and the method does not declare a
+	 * different access
+	 */
+	public SessionAccess getSessionAccess() {
+		return this.sessionAccess;
+	}
+
 	public boolean isStreamResponse() {
 		return this.streamResponse;
 	}
 
+	/**
+	 * @return the server side timeout in milliseconds, 0 if the method has no timeout
+	 */
+	public long getTimeout() {
+		return this.timeout;
+	}
+
+	public boolean isIdempotent() {
+		return this.idempotent;
+	}
+
+	/**
+	 * @return true if the method has a parameter of type
+	 * {@link jakarta.servlet.ServletRequest}, {@link jakarta.servlet.ServletResponse} or
+	 * {@link jakarta.servlet.http.HttpSession}
+	 */
+	public boolean hasServletParameter() {
+		return this.servletParameter;
+	}
+
+	/**
+	 * @return the result cache of the method, null if the method is not annotated with
+	 * {@link ExtDirectCacheable} or has a servlet parameter, see
+	 * {@link #hasServletParameter()}
+	 */
+	public MethodResultCache getResultCache() {
+		return this.resultCache;
+	}
+
+	/**
+	 * @return the refresh interval in nanoseconds of a POLL method annotated with
+	 * {@link ExtDirectSharedPoll}, 0 if the result is not shared
+	 */
+	public long getSharedPollInterval() {
+		return this.sharedPollInterval;
+	}
+
 	public PollingProvider getPollingProvider() {
 		return this.pollingProvider;
 	}
@@ -320,6 +443,15 @@ public final class MethodInfo {
 		return this.group;
 	}
 
+	private static boolean hasServletParameter(Method method) {
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (SupportedParameters.isServletParameter(parameterType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Find a method that is annotated with a specific annotation. Starts with the method
 	 * and goes up to the superclasses of the class.
@@ -349,4 +481,20 @@ public final class MethodInfo {
 		return null;
 	}
 
+	private static final class ResolvedBean {
+
+		private final ApplicationContext context;
+
+		private final String beanName;
+
+		private final Object bean;
+
+		ResolvedBean(ApplicationContext context, String beanName, Object bean) {
+			this.context = context;
+			this.beanName = beanName;
+			this.bean = bean;
+		}
+
+	}
+
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invokes a remote method through a {@link MethodHandle} that is created once when the
+ * method is registered. A returned {@link Optional} is unwrapped by the handle.
+ * <p>
+ * The invoker behaves like {@link Method#invoke(Object, Object...)}: exceptions thrown by
+ * the method are wrapped in an {@link InvocationTargetException}. Calls where the bean or
+ * the arguments do not exactly match the method signature are delegated to
+ * {@link Method#invoke(Object, Object...)}, which applies widening conversions and throws
+ * the usual {@link IllegalArgumentException}s.
+ */
+public final class MethodInvoker {
+
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	private static final MethodHandle UNWRAP_OPTIONAL;
+
+	static {
+		try {
+			UNWRAP_OPTIONAL = MethodHandles.lookup()
+				.findStatic(MethodInvoker.class, "unwrapOptional", MethodType.methodType(Object.class, Object.class));
+		}
+		catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Method method;
+
+	private final Class<?>[] parameterTypes;
+
+	private final boolean staticMethod;
+
+	private final MethodHandle handle;
+
+	public MethodInvoker(Method method) {
+		this.method = method;
+		this.parameterTypes = method.getParameterTypes();
+		this.staticMethod = Modifier.isStatic(method.getModifiers());
+		ReflectionUtils.makeAccessible(method);
+		this.handle = createHandle(method, this.parameterTypes.length, this.staticMethod);
+	}
+
+	private static MethodHandle createHandle(Method method, int parameterCount, boolean staticMethod) {
+		try {
+			MethodHandle mh = MethodHandles.lookup().unreflect(method).asFixedArity();
+			if (staticMethod) {
+				mh = MethodHandles.dropArguments(mh, 0, Object.class);
+			}
+			mh = mh.asType(MethodType.genericMethodType(parameterCount + 1));
+			if (method.getReturnType().isAssignableFrom(Optional.class)) {
+				mh = MethodHandles.filterReturnValue(mh, UNWRAP_OPTIONAL);
+			}
+			return mh.asSpreader(Object[].class, parameterCount);
+		}
+		catch (IllegalAccessException | RuntimeException e) {
+			LogFactory.getLog(MethodInvoker.class)
+				.debug("Unable to create a method handle for " + method + ", falling back to reflection", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Invokes the method on the bean.
+	 * @param bean the target bean, ignored for static methods
+	 * @param args the arguments, may be null if the method has no parameters
+	 * @return the result of the method, an {@link Optional} is unwrapped
+	 * @throws IllegalArgumentException if the bean or the arguments do not fit the method
+	 * @throws IllegalAccessException if the method is not accessible
+	 * @throws InvocationTargetException if the method throws an exception
+	 */
+	public Object invoke(Object bean, Object[] args)
+			throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
+		Object[] arguments = args != null ? args : NO_ARGUMENTS;
+
+		if (this.handle == null || !matches(bean, arguments)) {
+			return unwrapOptional(this.method.invoke(bean, arguments));
+		}
+
+		try {
+			return (Object) this.handle.invokeExact(bean, arguments);
+		}
+		catch (Throwable e) {
+			throw new InvocationTargetException(e);
+		}
+	}
+
+	private boolean matches(Object bean, Object[] arguments) {
+		if (!this.staticMethod && !this.method.getDeclaringClass().isInstance(bean)) {
+			return false;
+		}
+		if (arguments.length != this.parameterTypes.length) {
+			return false;
+		}
+		for (int i = 0; i < arguments.length; i++) {
+			Object argument = arguments[i];
+			if (argument == null) {
+				if (this.parameterTypes[i].isPrimitive()) {
+					return false;
+				}
+			}
+			else if (!ClassUtils.isAssignableValue(this.parameterTypes[i], argument)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Object unwrapOptional(Object result) {
+		if (result instanceof Optional) {
+			return ((Optional<?>) result).orElse(null);
+		}
+		return result;
+	}
+
+}
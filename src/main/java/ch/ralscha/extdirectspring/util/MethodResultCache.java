@@ -0,0 +1,249 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectCacheable;
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
+import ch.ralscha.extdirectspring.bean.GroupInfo;
+import ch.ralscha.extdirectspring.bean.SortInfo;
+import ch.ralscha.extdirectspring.filter.BooleanFilter;
+import ch.ralscha.extdirectspring.filter.DateFilter;
+import ch.ralscha.extdirectspring.filter.Filter;
+import ch.ralscha.extdirectspring.filter.ListFilter;
+import ch.ralscha.extdirectspring.filter.NumericFilter;
+import ch.ralscha.extdirectspring.filter.StringFilter;
+
+/**
+ * LRU cache with an optional time to live that holds the results of a method annotated
+ * with {@link ExtDirectCacheable}. Keeps track of hits, misses and evictions.
+ */
+public final class MethodResultCache {
+
+	private final long ttlNanos;
+
+	private final Map<MethodCallKey, CacheEntry> entries;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	public MethodResultCache(ExtDirectCacheable annotation) {
+		this(annotation.ttl(), annotation.timeUnit(), annotation.maxEntries());
+	}
+
+	public MethodResultCache(long ttl, TimeUnit timeUnit, final int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be greater than 0");
+		}
+		this.ttlNanos = timeUnit.toNanos(ttl);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<MethodCallKey, CacheEntry> eldest) {
+				if (size() > maxEntries) {
+					MethodResultCache.this.evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Creates the key for a call. Servlet request, response and session are left out, an
+	 * {@link ExtDirectRequest} parameter is represented by its data and metadata and an
+	 * {@link ExtDirectStoreReadRequest} by its values.
+	 */
+	public static MethodCallKey createKey(String beanName, String method, Object[] parameters) {
+		Object[] arguments = new Object[parameters != null ? parameters.length : 0];
+		for (int i = 0; i < arguments.length; i++) {
+			Object parameter = parameters[i];
+			if (parameter instanceof ServletRequest || parameter instanceof ServletResponse
+					|| parameter instanceof HttpSession) {
+				arguments[i] = null;
+			}
+			else if (parameter instanceof ExtDirectRequest) {
+				ExtDirectRequest directRequest = (ExtDirectRequest) parameter;
+				arguments[i] = new Object[] { directRequest.getData(), directRequest.getMetadata() };
+			}
+			else if (parameter instanceof ExtDirectStoreReadRequest) {
+				arguments[i] = createKey((ExtDirectStoreReadRequest) parameter);
+			}
+			else {
+				arguments[i] = parameter;
+			}
+		}
+		return new MethodCallKey(beanName, method, arguments);
+	}
+
+	private static Object[] createKey(ExtDirectStoreReadRequest readRequest) {
+		return new Object[] { readRequest.getQuery(), readRequest.getLimit(), readRequest.getStart(),
+				readRequest.getPage(), readRequest.getDir(), readRequest.getSort(), readRequest.getGroupBy(),
+				readRequest.getGroupDir(), createSortersKey(readRequest.getSorters()),
+				createGroupsKey(readRequest.getGroups()), createFiltersKey(readRequest.getFilters()),
+				readRequest.getParams() };
+	}
+
+	private static Object[] createSortersKey(List<SortInfo> sorters) {
+		if (sorters == null) {
+			return null;
+		}
+		Object[] key = new Object[sorters.size()];
+		for (int i = 0; i < key.length; i++) {
+			SortInfo sortInfo = sorters.get(i);
+			key[i] = new Object[] { sortInfo.getProperty(), sortInfo.getDirection() };
+		}
+		return key;
+	}
+
+	private static Object[] createGroupsKey(List<GroupInfo> groups) {
+		if (groups == null) {
+			return null;
+		}
+		Object[] key = new Object[groups.size()];
+		for (int i = 0; i < key.length; i++) {
+			GroupInfo groupInfo = groups.get(i);
+			key[i] = new Object[] { groupInfo.getProperty(), groupInfo.getDirection() };
+		}
+		return key;
+	}
+
+	/**
+	 * Filters of an unknown type are kept as they are and never match another filter.
+	 */
+	private static Object[] createFiltersKey(List<Filter> filters) {
+		if (filters == null) {
+			return null;
+		}
+		Object[] key = new Object[filters.size()];
+		for (int i = 0; i < key.length; i++) {
+			Filter filter = filters.get(i);
+			Object value;
+			if (filter instanceof StringFilter) {
+				value = ((StringFilter) filter).getValue();
+			}
+			else if (filter instanceof NumericFilter) {
+				value = ((NumericFilter) filter).getValue();
+			}
+			else if (filter instanceof BooleanFilter) {
+				value = ((BooleanFilter) filter).getValue();
+			}
+			else if (filter instanceof DateFilter) {
+				value = ((DateFilter) filter).getValue();
+			}
+			else if (filter instanceof ListFilter) {
+				value = ((ListFilter<?>) filter).getValue();
+			}
+			else {
+				value = filter;
+			}
+			key[i] = new Object[] { filter.getClass(), filter.getField(), filter.getRawComparison(), value };
+		}
+		return key;
+	}
+
+	/**
+	 * @return the cached result or null if there is no result for this key or the result
+	 * expired
+	 */
+	public Object get(MethodCallKey key) {
+		synchronized (this.entries) {
+			CacheEntry entry = this.entries.get(key);
+			if (entry != null) {
+				if (!entry.isExpired(System.nanoTime())) {
+					this.hits.increment();
+					return entry.value;
+				}
+				this.entries.remove(key);
+				this.evictions.increment();
+			}
+		}
+		this.misses.increment();
+		return null;
+	}
+
+	/**
+	 * Stores a result. Null values are ignored.
+	 */
+	public void put(MethodCallKey key, Object value) {
+		if (value == null) {
+			return;
+		}
+		long expiresAt = this.ttlNanos > 0 ? System.nanoTime() + this.ttlNanos : 0;
+		synchronized (this.entries) {
+			this.entries.put(key, new CacheEntry(value, expiresAt));
+		}
+	}
+
+	/**
+	 * Removes all cached results. The statistics are not reset.
+	 */
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return this.evictions.sum();
+	}
+
+	private static final class CacheEntry {
+
+		private final Object value;
+
+		private final long expiresAt;
+
+		CacheEntry(Object value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return this.expiresAt != 0 && now - this.expiresAt >= 0;
+		}
+
+	}
+
+}
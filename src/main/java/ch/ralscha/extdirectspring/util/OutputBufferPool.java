@@ -0,0 +1,86 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.util.Assert;
+
+/**
+ * Bounded pool of fixed size buffer segments for {@link PooledOutputStream}. Segments are
+ * either heap or direct {@link ByteBuffer}s. When the pool is empty a new segment is
+ * allocated, when the pool is full a released segment is dropped.
+ */
+public final class OutputBufferPool {
+
+	private final int segmentSize;
+
+	private final boolean direct;
+
+	private final BlockingQueue<ByteBuffer> segments;
+
+	/**
+	 * @param segmentSize size of one segment in bytes
+	 * @param maxPooledSegments maximum number of segments kept for reuse, 0 disables the
+	 * reuse
+	 * @param direct if true the segments are allocated off-heap
+	 */
+	public OutputBufferPool(int segmentSize, int maxPooledSegments, boolean direct) {
+		Assert.isTrue(segmentSize > 0, "segmentSize must be greater than 0");
+		Assert.isTrue(maxPooledSegments >= 0, "maxPooledSegments must not be negative");
+		this.segmentSize = segmentSize;
+		this.direct = direct;
+		this.segments = maxPooledSegments > 0 ? new ArrayBlockingQueue<>(maxPooledSegments) : null;
+	}
+
+	/**
+	 * @return a new, empty output stream. The stream has to be closed to return its
+	 * segments to the pool.
+	 */
+	public PooledOutputStream newOutputStream() {
+		return new PooledOutputStream(this);
+	}
+
+	/**
+	 * @return number of segments currently available for reuse
+	 */
+	public int getPooledSegmentCount() {
+		return this.segments != null ? this.segments.size() : 0;
+	}
+
+	int getSegmentSize() {
+		return this.segmentSize;
+	}
+
+	ByteBuffer acquire() {
+		ByteBuffer segment = this.segments != null ? this.segments.poll() : null;
+		if (segment == null) {
+			segment = this.direct ? ByteBuffer.allocateDirect(this.segmentSize)
+					: ByteBuffer.allocate(this.segmentSize);
+		}
+		return segment;
+	}
+
+	void release(ByteBuffer segment) {
+		if (this.segments != null) {
+			segment.clear();
+			this.segments.offer(segment);
+		}
+	}
+
+}
@@ -17,12 +17,18 @@ package ch.ralscha.extdirectspring.util;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -30,6 +36,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ValueConstants;
 
 import ch.ralscha.extdirectspring.annotation.MetadataParam;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
 
 /**
  * Object holds information about a parameter. i.e. the name, type and the attributes of a
@@ -61,6 +68,8 @@ public final class ParameterInfo {
 
 	private String defaultValue;
 
+	private final boolean typedDataBindable;
+
 	public ParameterInfo(Class<?> clazz, Method method, int paramIndex) {
 
 		MethodParameter methodParam = new MethodParameter(method, paramIndex);
@@ -139,6 +148,10 @@ public final class ParameterInfo {
 						"errorOnInvalidType");
 			}
 		}
+
+		this.typedDataBindable = paramAnnotations.length == 0 && !this.supportedParameter && !this.javaUtilOptional
+				&& !ExtDirectStoreReadRequest.class.isAssignableFrom(getType())
+				&& isTypedDataBindable(this.typeDescriptor);
 	}
 
 	public Class<?> getType() {
@@ -205,4 +218,28 @@ public final class ParameterInfo {
 		return this.javaUtilOptional;
 	}
 
+	/**
+	 * @return true if a client value for this parameter can be read straight into the
+	 * parameter type without a conversion step afterwards
+	 */
+	public boolean isTypedDataBindable() {
+		return this.typedDataBindable;
+	}
+
+	static boolean isTypedDataBindable(TypeDescriptor descriptor) {
+		if (descriptor.isArray() || descriptor.isCollection()) {
+			TypeDescriptor elementDescriptor = descriptor.getElementTypeDescriptor();
+			return elementDescriptor != null && isTypedDataBindable(elementDescriptor);
+		}
+
+		Class<?> type = descriptor.getType();
+		if (ClassUtils.isPrimitiveOrWrapper(type) || type == String.class || type == BigDecimal.class
+				|| type == BigInteger.class || type.isEnum()) {
+			return true;
+		}
+
+		return type != Object.class && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())
+				&& !Map.class.isAssignableFrom(type) && !BeanUtils.isSimpleValueType(type);
+	}
+
 }
@@ -17,7 +17,7 @@ package ch.ralscha.extdirectspring.util;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.TypeVariable;
+import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -31,6 +31,7 @@ import java.util.Set;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -48,10 +49,6 @@ import org.springframework.web.util.UrlPathHelper;
 import org.springframework.web.util.WebUtils;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.type.CollectionType;
-import com.fasterxml.jackson.databind.type.TypeBindings;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
 import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
@@ -131,6 +128,30 @@ public final class ParametersResolver {
 		return parameters;
 	}
 
+	/**
+	 * Sets the {@link HttpSession} and {@link Principal} parameters of a call without a
+	 * servlet request, for example a call over a WebSocket connection. The other
+	 * parameters are resolved with a null request.
+	 */
+	public void resolveSessionParameters(Object[] parameters, MethodInfo methodInfo, HttpSession session,
+			Principal principal) {
+		if (parameters == null) {
+			return;
+		}
+		List<ParameterInfo> methodParameters = methodInfo.getParameters();
+		for (int paramIndex = 0; paramIndex < methodParameters.size(); paramIndex++) {
+			ParameterInfo methodParameter = methodParameters.get(paramIndex);
+			if (methodParameter.isSupportedParameter()) {
+				if (HttpSession.class.isAssignableFrom(methodParameter.getType())) {
+					parameters[paramIndex] = session;
+				}
+				else if (Principal.class.isAssignableFrom(methodParameter.getType())) {
+					parameters[paramIndex] = principal;
+				}
+			}
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	public Object[] resolveParameters(HttpServletRequest request, HttpServletResponse response, Locale locale,
 			ExtDirectRequest directRequest, MethodInfo methodInfo) throws Exception {
@@ -165,7 +186,10 @@ public final class ParametersResolver {
 
 			if (directStoreEntryClass != null && data != null && data.size() > 0) {
 				Object obj = data.get(0);
-				if (obj instanceof List) {
+				if (obj instanceof List && directRequest.isDataBound()) {
+					directStoreModifyRecords = (List<Object>) obj;
+				}
+				else if (obj instanceof List) {
 					directStoreModifyRecords = convertObjectEntriesToType((List<Object>) obj, directStoreEntryClass);
 				}
 				else {
@@ -224,6 +248,10 @@ public final class ParametersResolver {
 
 		}
 
+		// values bound by the TypedDataReader already have the parameter type. For
+		// STORE_MODIFY only the records are bound.
+		boolean typedData = directRequest.isDataBound() && !methodInfo.isType(ExtDirectMethodType.STORE_MODIFY);
+
 		List<ParameterInfo> methodParameters = methodInfo.getParameters();
 		Object[] parameters = null;
 
@@ -260,12 +288,12 @@ public final class ParametersResolver {
 				}
 				else if (remainingParameters != null && remainingParameters.containsKey(methodParameter.getName())) {
 					Object jsonValue = remainingParameters.get(methodParameter.getName());
-					parameters[paramIndex] = convertValue(jsonValue, methodParameter);
+					parameters[paramIndex] = convertDataValue(jsonValue, methodParameter, typedData);
 				}
 				else if (directRequest.getData() != null && directRequest.getData() instanceof List
 						&& ((List<Object>) directRequest.getData()).size() > jsonParamIndex) {
 					Object jsonValue = ((List<Object>) directRequest.getData()).get(jsonParamIndex);
-					parameters[paramIndex] = convertValue(jsonValue, methodParameter);
+					parameters[paramIndex] = convertDataValue(jsonValue, methodParameter, typedData);
 					jsonParamIndex++;
 				}
 				else {
@@ -354,7 +382,7 @@ public final class ParametersResolver {
 	}
 
 	private Object resolveRequestHeader(HttpServletRequest request, ParameterInfo parameterInfo) {
-		String value = request.getHeader(parameterInfo.getName());
+		String value = request != null ? request.getHeader(parameterInfo.getName()) : null;
 
 		if (value == null) {
 			value = parameterInfo.getDefaultValue();
@@ -380,7 +408,7 @@ public final class ParametersResolver {
 
 	private Object resolveCookieValue(HttpServletRequest request, ParameterInfo parameterInfo) {
 
-		Cookie cookieValue = WebUtils.getCookie(request, parameterInfo.getName());
+		Cookie cookieValue = request != null ? WebUtils.getCookie(request, parameterInfo.getName()) : null;
 		String value = null;
 
 		if (cookieValue != null) {
@@ -420,6 +448,13 @@ public final class ParametersResolver {
 		return principal;
 	}
 
+	private Object convertDataValue(Object value, ParameterInfo methodParameter, boolean typedData) {
+		if (typedData && methodParameter.isTypedDataBindable()) {
+			return value;
+		}
+		return convertValue(value, methodParameter);
+	}
+
 	private Object convertValue(Object value, ParameterInfo methodParameter) {
 		if (value != null) {
 			Class<?> rawType = methodParameter.getType();
@@ -436,32 +471,9 @@ public final class ParametersResolver {
 				catch (ConversionFailedException e) {
 					// ignore this exception for collections and arrays.
 					// try to convert the value with jackson
-					TypeFactory typeFactory = this.jsonHandler.getMapper().getTypeFactory();
-					if (methodParameter.getTypeDescriptor().isCollection()) {
-
-						JavaType elemType = typeFactory
-							.constructType(methodParameter.getTypeDescriptor().getElementTypeDescriptor().getType());
-						TypeVariable<?>[] vars = rawType.getTypeParameters();
-						TypeBindings bindings;
-						if (vars == null || vars.length != 1) {
-							bindings = TypeBindings.emptyBindings();
-						}
-						else {
-							bindings = TypeBindings.create(rawType, elemType);
-						}
-						JavaType superClass = null;
-						Class<?> parent = rawType.getSuperclass();
-						if (parent != null) {
-							superClass = TypeFactory.unknownType();
-						}
-
-						JavaType type = CollectionType.construct(rawType, bindings, superClass, null, elemType);
-						return this.jsonHandler.convertValue(value, type);
-					}
-					else if (methodParameter.getTypeDescriptor().isArray()) {
-						JavaType type = typeFactory.constructArrayType(
-								methodParameter.getTypeDescriptor().getElementTypeDescriptor().getType());
-						return this.jsonHandler.convertValue(value, type);
+					TypeDescriptor typeDescriptor = methodParameter.getTypeDescriptor();
+					if (typeDescriptor.isCollection() || typeDescriptor.isArray()) {
+						return this.jsonHandler.convertValue(value, this.jsonHandler.getJavaType(typeDescriptor));
 					}
 
 					throw e;
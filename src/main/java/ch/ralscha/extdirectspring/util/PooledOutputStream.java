@@ -0,0 +1,131 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Output stream that collects the written bytes in segments borrowed from an
+ * {@link OutputBufferPool}. Unlike a ByteArrayOutputStream it never copies the data when
+ * it grows. {@link #size()} is exact, so the content is first written completely and then
+ * copied with {@link #writeTo(OutputStream)} after the Content-Length is set.
+ * <p>
+ * {@link #close()} returns the segments to the pool, the stream must not be used
+ * afterwards.
+ */
+public final class PooledOutputStream extends OutputStream {
+
+	private final OutputBufferPool pool;
+
+	private final List<ByteBuffer> segments = new ArrayList<>();
+
+	private ByteBuffer current;
+
+	private int size;
+
+	private boolean closed;
+
+	PooledOutputStream(OutputBufferPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		if (this.current == null || !this.current.hasRemaining()) {
+			nextSegment();
+		}
+		this.current.put((byte) b);
+		this.size++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		int offset = off;
+		int remaining = len;
+		while (remaining > 0) {
+			if (this.current == null || !this.current.hasRemaining()) {
+				nextSegment();
+			}
+			int length = Math.min(remaining, this.current.remaining());
+			this.current.put(b, offset, length);
+			offset += length;
+			remaining -= length;
+		}
+		this.size += len;
+	}
+
+	/**
+	 * @return the number of bytes written into this stream
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Copies the content of this stream into the given stream.
+	 * @param out the target stream
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		ensureOpen();
+		byte[] transfer = null;
+		for (ByteBuffer segment : this.segments) {
+			if (segment.hasArray()) {
+				out.write(segment.array(), segment.arrayOffset(), segment.position());
+			}
+			else {
+				if (transfer == null) {
+					transfer = new byte[Math.min(this.size, this.pool.getSegmentSize())];
+				}
+				ByteBuffer content = segment.duplicate().flip();
+				while (content.hasRemaining()) {
+					int length = Math.min(content.remaining(), transfer.length);
+					content.get(transfer, 0, length);
+					out.write(transfer, 0, length);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (!this.closed) {
+			this.closed = true;
+			for (ByteBuffer segment : this.segments) {
+				this.pool.release(segment);
+			}
+			this.segments.clear();
+			this.current = null;
+		}
+	}
+
+	private void nextSegment() {
+		this.current = this.pool.acquire();
+		this.segments.add(this.current);
+	}
+
+	private void ensureOpen() throws IOException {
+		if (this.closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+}
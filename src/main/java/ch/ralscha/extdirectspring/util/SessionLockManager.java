@@ -0,0 +1,147 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.util.Assert;
+
+/**
+ * Synchronizes the calls of a session with {@link ReentrantReadWriteLock}s that are
+ * striped by the session id. Exclusive calls run alone, shared calls run in parallel.
+ * Unlike synchronizing on the session mutex a waiting virtual thread does not pin its
+ * carrier thread. Sessions whose ids map to the same stripe share a lock.
+ * <p>
+ * Keeps track of the number of acquisitions and of the time callers waited for a lock.
+ */
+public final class SessionLockManager {
+
+	private final ReadWriteLock[] locks;
+
+	private final int mask;
+
+	private final LongAdder acquisitions = new LongAdder();
+
+	private final LongAdder contended = new LongAdder();
+
+	private final LongAdder totalWaitNanos = new LongAdder();
+
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * @param stripes number of locks, rounded up to the next power of two
+	 * @param fair if true the locks grant access in arrival order
+	 */
+	public SessionLockManager(int stripes, boolean fair) {
+		Assert.isTrue(stripes > 0, "stripes must be greater than 0");
+		int size = Integer.highestOneBit(stripes);
+		if (size < stripes) {
+			size <<= 1;
+		}
+		this.locks = new ReadWriteLock[size];
+		for (int i = 0; i < size; i++) {
+			this.locks[i] = new ReentrantReadWriteLock(fair);
+		}
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Runs the callable while holding the exclusive lock of the session.
+	 * @param sessionId the id of the session
+	 * @param callable the code to run
+	 * @return the result of the callable
+	 */
+	public <T> T callExclusive(String sessionId, Callable<T> callable) throws Exception {
+		return call(getLock(sessionId).writeLock(), callable);
+	}
+
+	/**
+	 * Runs the callable while holding the shared lock of the session. Shared calls of a
+	 * session run in parallel, they wait for calls that hold the exclusive lock.
+	 * @param sessionId the id of the session
+	 * @param callable the code to run
+	 * @return the result of the callable
+	 */
+	public <T> T callShared(String sessionId, Callable<T> callable) throws Exception {
+		return call(getLock(sessionId).readLock(), callable);
+	}
+
+	/**
+	 * @return the number of locks
+	 */
+	public int getStripes() {
+		return this.locks.length;
+	}
+
+	/**
+	 * @return the number of acquired locks
+	 */
+	public long getAcquisitionCount() {
+		return this.acquisitions.sum();
+	}
+
+	/**
+	 * @return the number of acquisitions that had to wait for the lock
+	 */
+	public long getContendedCount() {
+		return this.contended.sum();
+	}
+
+	/**
+	 * @return the sum of the time callers waited for a lock
+	 */
+	public long getTotalWaitTime(TimeUnit unit) {
+		return unit.convert(this.totalWaitNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return the longest time a caller waited for a lock
+	 */
+	public long getMaxWaitTime(TimeUnit unit) {
+		return unit.convert(this.maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	ReadWriteLock getLock(String sessionId) {
+		int hash = sessionId.hashCode();
+		return this.locks[(hash ^ (hash >>> 16)) & this.mask];
+	}
+
+	private <T> T call(Lock lock, Callable<T> callable) throws Exception {
+		// the timed variant honors the fairness setting, tryLock() would barge
+		if (!lock.tryLock(0, TimeUnit.NANOSECONDS)) {
+			long start = System.nanoTime();
+			lock.lock();
+			long waitNanos = System.nanoTime() - start;
+			this.contended.increment();
+			this.totalWaitNanos.add(waitNanos);
+			this.maxWaitNanos.accumulate(waitNanos);
+		}
+		this.acquisitions.increment();
+		try {
+			return callable.call();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+}
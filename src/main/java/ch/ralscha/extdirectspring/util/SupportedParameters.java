@@ -63,6 +63,17 @@ enum SupportedParameters {
 		return false;
 	}
 
+	/**
+	 * Checks if the class is a servlet request, servlet response or session parameter
+	 * type. The values of these parameters are bound to the current request.
+	 * @param clazz
+	 * @return true if the class is one of these types
+	 */
+	public static boolean isServletParameter(Class<?> clazz) {
+		return SERVLET_REQUEST.clazz.isAssignableFrom(clazz) || SERVLET_RESPONSE.clazz.isAssignableFrom(clazz)
+				|| SESSION.clazz.isAssignableFrom(clazz);
+	}
+
 	public static Object resolveParameter(Class<?> parameterType, HttpServletRequest request,
 			HttpServletResponse response, Locale locale, ExtDirectRequest extDirectRequest) {
 
@@ -73,10 +84,10 @@ enum SupportedParameters {
 			return response;
 		}
 		else if (SESSION.getSupportedClass().isAssignableFrom(parameterType)) {
-			return request.getSession();
+			return request != null ? request.getSession() : null;
 		}
 		else if (PRINCIPAL.getSupportedClass().isAssignableFrom(parameterType)) {
-			return request.getUserPrincipal();
+			return request != null ? request.getUserPrincipal() : null;
 		}
 		else if (LOCALE.getSupportedClass().equals(parameterType)) {
 			return locale;
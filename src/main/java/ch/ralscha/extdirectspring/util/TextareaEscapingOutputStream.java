@@ -0,0 +1,96 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that escapes the JSON of a multipart (file upload) response for the
+ * textarea it is embedded in. Every <code>&amp;quot;</code> is written as
+ * <code>\&amp;quot;</code> while the bytes pass through, so the response never has to be
+ * held as a string.
+ * <p>
+ * {@link #close()} writes the bytes of an incomplete match and flushes, but does not
+ * close the underlying stream. The HTML suffix can still be written into it afterwards.
+ */
+public final class TextareaEscapingOutputStream extends FilterOutputStream {
+
+	private static final byte[] QUOT = { '&', 'q', 'u', 'o', 't', ';' };
+
+	private static final byte[] ESCAPED_QUOT = { '\\', '&', 'q', 'u', 'o', 't', ';' };
+
+	private int matched;
+
+	private boolean closed;
+
+	public TextareaEscapingOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		byte value = (byte) b;
+		if (value == QUOT[this.matched]) {
+			this.matched++;
+			if (this.matched == QUOT.length) {
+				this.out.write(ESCAPED_QUOT);
+				this.matched = 0;
+			}
+			return;
+		}
+
+		writePending();
+		if (value == QUOT[0]) {
+			this.matched = 1;
+		}
+		else {
+			this.out.write(b);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		int end = off + len;
+		int start = off;
+		for (int i = off; i < end; i++) {
+			if (this.matched > 0 || b[i] == QUOT[0]) {
+				this.out.write(b, start, i - start);
+				write(b[i]);
+				start = i + 1;
+			}
+		}
+		this.out.write(b, start, end - start);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!this.closed) {
+			this.closed = true;
+			writePending();
+			this.out.flush();
+		}
+	}
+
+	private void writePending() throws IOException {
+		if (this.matched > 0) {
+			this.out.write(QUOT, 0, this.matched);
+			this.matched = 0;
+		}
+	}
+
+}
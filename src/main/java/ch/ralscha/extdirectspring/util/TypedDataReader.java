@@ -0,0 +1,292 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.convert.TypeDescriptor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
+
+/**
+ * Reads the requests of a router call and binds their data directly to the parameter
+ * types of the target method. The envelope fields are read first, the data is buffered as
+ * tokens and once the target {@link MethodInfo} is known the tokens are read into the
+ * declared parameter types.
+ * <p>
+ * Only SIMPLE, SIMPLE_NAMED and STORE_MODIFY methods are bound this way, and only the
+ * parameters where {@link ParameterInfo#isTypedDataBindable()} is true. If the data does
+ * not match the method signature the data is read untyped and the
+ * {@link ParametersResolver} converts it like before.
+ */
+public final class TypedDataReader {
+
+	private static final Log log = LogFactory.getLog(TypedDataReader.class);
+
+	private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+		// nothing here
+	};
+
+	private final JsonHandler jsonHandler;
+
+	private final MethodInfoCache methodInfoCache;
+
+	private final Map<MethodInfo, DataBinding> dataBindings = new ConcurrentHashMap<>();
+
+	public TypedDataReader(JsonHandler jsonHandler, MethodInfoCache methodInfoCache) {
+		this.jsonHandler = jsonHandler;
+		this.methodInfoCache = methodInfoCache;
+	}
+
+	/**
+	 * Reads a single request or a batch of requests from the stream.
+	 * @param is the request body
+	 * @return the requests, null if the body is not a json object or array
+	 */
+	public List<ExtDirectRequest> readDirectRequests(InputStream is) {
+		ObjectMapper mapper = this.jsonHandler.getMapper();
+		try (JsonParser parser = mapper.getFactory().createParser(is)) {
+			JsonToken token = parser.nextToken();
+			if (token == JsonToken.START_OBJECT) {
+				return Collections.singletonList(readDirectRequest(parser, mapper));
+			}
+			else if (token == JsonToken.START_ARRAY) {
+				List<ExtDirectRequest> directRequests = new ArrayList<>();
+				while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+					if (token == JsonToken.START_OBJECT) {
+						directRequests.add(readDirectRequest(parser, mapper));
+					}
+					else {
+						directRequests.add(mapper.readValue(parser, ExtDirectRequest.class));
+					}
+				}
+				return directRequests;
+			}
+		}
+		catch (Exception e) {
+			log.info("deserialize json to object", e);
+		}
+		return null;
+	}
+
+	private ExtDirectRequest readDirectRequest(JsonParser parser, ObjectMapper mapper) throws IOException {
+		ExtDirectRequest directRequest = new ExtDirectRequest();
+		TokenBuffer data = null;
+
+		String fieldName;
+		while ((fieldName = parser.nextFieldName()) != null) {
+			parser.nextToken();
+			if ("action".equals(fieldName)) {
+				directRequest.setAction(parser.getValueAsString());
+			}
+			else if ("method".equals(fieldName)) {
+				directRequest.setMethod(parser.getValueAsString());
+			}
+			else if ("type".equals(fieldName)) {
+				directRequest.setType(parser.getValueAsString());
+			}
+			else if ("tid".equals(fieldName)) {
+				directRequest.setTid(parser.getValueAsInt());
+			}
+			else if ("metadata".equals(fieldName)) {
+				directRequest.setMetadata(mapper.readValue(parser, METADATA_TYPE));
+			}
+			else if ("data".equals(fieldName)) {
+				data = new TokenBuffer(parser);
+				data.copyCurrentStructure(parser);
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+
+		if (data != null) {
+			readData(directRequest, data, mapper);
+		}
+		return directRequest;
+	}
+
+	private void readData(ExtDirectRequest directRequest, TokenBuffer data, ObjectMapper mapper) throws IOException {
+		MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+		if (methodInfo != null) {
+			DataBinding dataBinding = this.dataBindings.computeIfAbsent(methodInfo,
+					key -> new DataBinding(key, this.jsonHandler));
+			try {
+				Object typedData = dataBinding.read(data, mapper);
+				if (typedData != null) {
+					directRequest.setData(typedData);
+					directRequest.setDataBound(true);
+					return;
+				}
+			}
+			catch (IOException | RuntimeException e) {
+				if (log.isDebugEnabled()) {
+					log.debug("typed binding of " + directRequest.getAction() + "." + directRequest.getMethod()
+							+ " failed, reading untyped data", e);
+				}
+			}
+		}
+
+		try (JsonParser dataParser = data.asParser(mapper)) {
+			directRequest.setData(mapper.readValue(dataParser, Object.class));
+		}
+	}
+
+	/**
+	 * The parameter types of one method in the order and under the names the
+	 * {@link ParametersResolver} consumes the values of the data.
+	 */
+	private static final class DataBinding {
+
+		private final ExtDirectMethodType type;
+
+		private final ObjectReader[] positionalReaders;
+
+		private final Map<String, ObjectReader> namedReaders;
+
+		private final ObjectReader recordsReader;
+
+		DataBinding(MethodInfo methodInfo, JsonHandler jsonHandler) {
+			List<ObjectReader> positional = new ArrayList<>();
+			Map<String, ObjectReader> named = new HashMap<>();
+			boolean bindable = false;
+
+			for (ParameterInfo parameter : methodInfo.getParameters()) {
+				if (parameter.isSupportedParameter()
+						|| ExtDirectStoreReadRequest.class.isAssignableFrom(parameter.getType())
+						|| parameter.hasRequestParamAnnotation() || parameter.hasMetadataParamAnnotation()
+						|| !parameter.isClientParameter()) {
+					continue;
+				}
+
+				ObjectReader reader = null;
+				if (parameter.isTypedDataBindable()) {
+					reader = jsonHandler.getReader(parameter.getTypeDescriptor());
+					named.put(parameter.getName(), reader);
+					bindable = true;
+				}
+				positional.add(reader);
+			}
+
+			if (methodInfo.isType(ExtDirectMethodType.SIMPLE) && bindable) {
+				this.type = ExtDirectMethodType.SIMPLE;
+			}
+			else if (methodInfo.isType(ExtDirectMethodType.SIMPLE_NAMED) && bindable) {
+				this.type = ExtDirectMethodType.SIMPLE_NAMED;
+			}
+			else if (methodInfo.isType(ExtDirectMethodType.STORE_MODIFY) && methodInfo.getCollectionType() != null
+					&& ParameterInfo.isTypedDataBindable(TypeDescriptor.valueOf(methodInfo.getCollectionType()))) {
+				this.type = ExtDirectMethodType.STORE_MODIFY;
+			}
+			else {
+				this.type = null;
+			}
+
+			this.positionalReaders = positional.toArray(new ObjectReader[0]);
+			this.namedReaders = named;
+			this.recordsReader = this.type == ExtDirectMethodType.STORE_MODIFY
+					? jsonHandler.getReader(TypeDescriptor.collection(List.class,
+							TypeDescriptor.valueOf(methodInfo.getCollectionType())))
+					: null;
+		}
+
+		/**
+		 * @return the typed data or null if the data can not be bound to this method
+		 */
+		Object read(TokenBuffer data, ObjectMapper mapper) throws IOException {
+			if (this.type == null) {
+				return null;
+			}
+
+			try (JsonParser parser = data.asParser(mapper)) {
+				JsonToken token = parser.nextToken();
+				if (this.type == ExtDirectMethodType.SIMPLE_NAMED) {
+					return token == JsonToken.START_OBJECT ? readNamed(parser, mapper) : null;
+				}
+				if (token != JsonToken.START_ARRAY) {
+					return null;
+				}
+				if (this.type == ExtDirectMethodType.SIMPLE) {
+					return readPositional(parser, mapper);
+				}
+				return readRecords(parser, mapper);
+			}
+		}
+
+		private List<Object> readPositional(JsonParser parser, ObjectMapper mapper) throws IOException {
+			List<Object> values = new ArrayList<>();
+			int index = 0;
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				ObjectReader reader = index < this.positionalReaders.length ? this.positionalReaders[index] : null;
+				values.add(readValue(parser, mapper, reader));
+				index++;
+			}
+			return values;
+		}
+
+		private Map<String, Object> readNamed(JsonParser parser, ObjectMapper mapper) throws IOException {
+			Map<String, Object> values = new LinkedHashMap<>();
+			String name;
+			while ((name = parser.nextFieldName()) != null) {
+				parser.nextToken();
+				values.put(name, readValue(parser, mapper, this.namedReaders.get(name)));
+			}
+			return values;
+		}
+
+		private List<Object> readRecords(JsonParser parser, ObjectMapper mapper) throws IOException {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				return null;
+			}
+
+			List<Object> values = new ArrayList<>();
+			values.add(this.recordsReader.readValue(parser));
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				values.add(mapper.readValue(parser, Object.class));
+			}
+			return values;
+		}
+
+		private static Object readValue(JsonParser parser, ObjectMapper mapper, ObjectReader reader)
+				throws IOException {
+			if (reader == null || parser.currentToken() == JsonToken.VALUE_NULL) {
+				return mapper.readValue(parser, Object.class);
+			}
+			return reader.readValue(parser);
+		}
+
+	}
+
+}
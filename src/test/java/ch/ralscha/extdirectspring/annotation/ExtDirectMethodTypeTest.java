@@ -26,6 +26,7 @@ import ch.ralscha.extdirectspring.provider.FormInfoController2;
 import ch.ralscha.extdirectspring.provider.FormInfoController3;
 import ch.ralscha.extdirectspring.provider.PollProvider;
 import ch.ralscha.extdirectspring.provider.RemoteProviderFormLoad;
+import ch.ralscha.extdirectspring.provider.RemoteProviderSharedPoll;
 import ch.ralscha.extdirectspring.provider.RemoteProviderSimple;
 import ch.ralscha.extdirectspring.provider.RemoteProviderSimpleNamed;
 import ch.ralscha.extdirectspring.provider.RemoteProviderStoreModify;
@@ -172,6 +173,25 @@ public class ExtDirectMethodTypeTest {
 		}
 	}
 
+	@Test
+	public void testSharedPollIsValid() throws SecurityException {
+		assertThat(ExtDirectMethodType.POLL.isValid("remoteProviderSharedPoll.status", RemoteProviderSharedPoll.class,
+				findMethod(RemoteProviderSharedPoll.class, "status")))
+			.isTrue();
+		assertThat(ExtDirectMethodType.POLL.isValid("remoteProviderSharedPoll.request", RemoteProviderSharedPoll.class,
+				findMethod(RemoteProviderSharedPoll.class, "request")))
+			.isFalse();
+		assertThat(ExtDirectMethodType.POLL.isValid("remoteProviderSharedPoll.principal",
+				RemoteProviderSharedPoll.class, findMethod(RemoteProviderSharedPoll.class, "principal")))
+			.isFalse();
+		assertThat(ExtDirectMethodType.POLL.isValid("remoteProviderSharedPoll.user", RemoteProviderSharedPoll.class,
+				findMethod(RemoteProviderSharedPoll.class, "user")))
+			.isFalse();
+		assertThat(ExtDirectMethodType.POLL.isValid("remoteProviderSharedPoll.locked", RemoteProviderSharedPoll.class,
+				findMethod(RemoteProviderSharedPoll.class, "locked")))
+			.isFalse();
+	}
+
 	@Test
 	public void testFormPostJsonIsValid() throws SecurityException {
 		assertThat(ExtDirectMethodType.FORM_POST_JSON.isValid("formInfoController3.updateInfoJson",
@@ -939,6 +939,7 @@ public class ApiControllerTest {
 		remotingApi.addPollingProvider(new PollingProvider("pollProvider", "handleMessage2", "message2"));
 		remotingApi.addPollingProvider(new PollingProvider("pollProvider", "handleMessage3", "message3"));
 		remotingApi.addPollingProvider(new PollingProvider("pollProvider", "handleMessage4", "message4"));
+		remotingApi.addPollingProvider(new PollingProvider("pollProvider", "handleMessage7", "message7"));
 		remotingApi.addPollingProvider(new PollingProvider("pollProvider", "handleMessage5", "message5"));
 		remotingApi.addPollingProvider(new PollingProvider("pollProvider", "message6", "message6"));
 		remotingApi
@@ -1037,6 +1038,36 @@ public class ApiControllerTest {
 		remotingApi.addAction("remoteProviderMetadata",
 				Action.createTreeLoad("treeLoad3", 1, Collections.singletonList("id"), null));
 
+		remotingApi.addAction("remoteProviderAsync", Action.create("completed", 1));
+		remotingApi.addAction("remoteProviderAsync", Action.create("delayed", 1));
+		remotingApi.addAction("remoteProviderAsync", Action.create("delayedFailure", 0));
+		remotingApi.addAction("remoteProviderAsync", Action.create("deferred", 1));
+		remotingApi.addAction("remoteProviderAsync", Action.create("never", 0));
+		remotingApi.addAction("remoteProviderAsync", Action.create("pending", 0));
+		remotingApi.addAction("remoteProviderAsync", Action.create("deferredTimeout", 0));
+		remotingApi.addAction("remoteProviderAsync", Action.create("slow", 0));
+		remotingApi.addAction("remoteProviderAsync", Action.create("sleep", 0));
+		remotingApi.addPollingProvider(new PollingProvider("remoteProviderAsync", "asyncPoll", "asyncPoll"));
+		remotingApi.addPollingProvider(new PollingProvider("remoteProviderAsync", "pendingPoll", "pendingPoll"));
+
+		remotingApi.addAction("remoteProviderIdempotent", Action.create("read", 1));
+		remotingApi.addAction("remoteProviderIdempotent", Action.create("write", 1));
+		remotingApi.addAction("remoteProviderIdempotent", Action.create("gated", 1));
+		remotingApi.addAction("remoteProviderIdempotent", Action.create("gatedRead", 1));
+		remotingApi.addAction("remoteProviderIdempotent", Action.create("gatedSession", 1));
+
+		remotingApi.addAction("remoteProviderSessionAccess", Action.create("read", 0));
+		remotingApi.addAction("remoteProviderSessionAccess", Action.create("write", 0));
+		remotingApi.addAction("remoteProviderSessionAccess", Action.create("user", 0));
+
+		remotingApi.addAction("remoteProviderCache", Action.create("cached", 1));
+		remotingApi.addAction("remoteProviderCache", Action.create("expiring", 1));
+		remotingApi.addAction("remoteProviderCache", Action.create("cachedNull", 1));
+		remotingApi.addAction("remoteProviderCache", Action.create("read", 1));
+		remotingApi.addAction("remoteProviderCache", Action.create("session", 1));
+
+		remotingApi.addPollingProvider(new PollingProvider("remoteProviderSharedPoll", "status", "sharedStatus"));
+
 		return remotingApi;
 	}
 
@@ -1139,6 +1170,7 @@ public class ApiControllerTest {
 		remotingApi.addAction("formInfoController3", Action.create("updateInfoJsonDirectErrorEd", 1));
 
 		remotingApi.addPollingProvider(new PollingProvider("pollProvider", "handleMessage4", "message4"));
+		remotingApi.addPollingProvider(new PollingProvider("pollProvider", "handleMessage7", "message7"));
 
 		return remotingApi;
 	}
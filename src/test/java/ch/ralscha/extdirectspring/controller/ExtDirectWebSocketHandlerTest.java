@@ -0,0 +1,383 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpSession;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderSessionAccess;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContext.xml")
+public class ExtDirectWebSocketHandlerTest {
+
+	@Autowired
+	private RouterController routerController;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private MethodInfoCache methodInfoCache;
+
+	@Autowired
+	private PollEventPublisher pollEventPublisher;
+
+	@Autowired
+	private RemoteProviderSessionAccess remoteProviderSessionAccess;
+
+	private ExtDirectWebSocketHandler handler;
+
+	private TestSession session;
+
+	@BeforeEach
+	public void setupHandler() {
+		this.handler = new ExtDirectWebSocketHandler(this.routerController, this.configurationService,
+				this.methodInfoCache, this.pollEventPublisher);
+		this.session = new TestSession();
+		this.handler.afterConnectionEstablished(this.session);
+		this.remoteProviderSessionAccess.reset();
+	}
+
+	@AfterEach
+	public void closeHandler() {
+		this.handler.afterConnectionClosed(this.session, CloseStatus.NORMAL);
+		this.handler.destroy();
+	}
+
+	@Test
+	public void testCall() throws Exception {
+		this.handler.handleTextMessage(this.session, new TextMessage(
+				"{\"action\":\"remoteProviderSimple\",\"method\":\"method1\",\"type\":\"rpc\",\"tid\":1}"));
+
+		List<String> messages = this.session.awaitMessages(1);
+		ExtDirectResponse resp = ControllerUtil.readDirectResponse(messages.get(0).getBytes("UTF-8"));
+		assertThat(resp.getTid()).isEqualTo(1);
+		assertThat(resp.getType()).isEqualTo("rpc");
+		assertThat(resp.getAction()).isEqualTo("remoteProviderSimple");
+		assertThat(resp.getMethod()).isEqualTo("method1");
+		assertThat(resp.getResult()).isEqualTo("method1() called");
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		this.handler.handleTextMessage(this.session,
+				new TextMessage("[{\"action\":\"remoteProviderSimple\",\"method\":\"method1\",\"type\":\"rpc\","
+						+ "\"tid\":1},{\"action\":\"remoteProviderSimple\",\"method\":\"unknown\",\"type\":\"rpc\","
+						+ "\"tid\":2}]"));
+
+		Map<Integer, ExtDirectResponse> responses = new HashMap<>();
+		for (String message : this.session.awaitMessages(2)) {
+			ExtDirectResponse resp = ControllerUtil.readDirectResponse(message.getBytes("UTF-8"));
+			responses.put(resp.getTid(), resp);
+		}
+		assertThat(responses.get(1).getResult()).isEqualTo("method1() called");
+		assertThat(responses.get(2).getType()).isEqualTo("exception");
+	}
+
+	@Test
+	public void testPollEvents() throws Exception {
+		this.handler.handleTextMessage(this.session,
+				new TextMessage("{\"action\":\"pollProvider\",\"method\":\"handleMessage1\",\"type\":\"poll\"}"));
+		assertThat(this.pollEventPublisher.getSubscriberCount("message1")).isEqualTo(1);
+
+		this.pollEventPublisher.publish("message1", "pushed");
+		ExtDirectPollResponse resp = ControllerUtil
+			.readDirectPollResponse(this.session.awaitMessages(1).get(0).getBytes("UTF-8"));
+		assertThat(resp.getType()).isEqualTo("event");
+		assertThat(resp.getName()).isEqualTo("message1");
+		assertThat(resp.getData()).isEqualTo("pushed");
+
+		this.pollEventPublisher.signal("message1");
+		resp = ControllerUtil.readDirectPollResponse(this.session.awaitMessages(2).get(1).getBytes("UTF-8"));
+		assertThat((String) resp.getData()).startsWith("Successfully polled at: ");
+
+		this.handler.afterConnectionClosed(this.session, CloseStatus.NORMAL);
+		assertThat(this.pollEventPublisher.getSubscriberCount("message1")).isEqualTo(0);
+	}
+
+	@Test
+	public void testRepeatedSubscription() throws Exception {
+		TextMessage subscription = new TextMessage(
+				"{\"action\":\"pollProvider\",\"method\":\"handleMessage1\",\"type\":\"poll\"}");
+		this.handler.handleTextMessage(this.session, subscription);
+		this.handler.handleTextMessage(this.session, subscription);
+		assertThat(this.pollEventPublisher.getSubscriberCount("message1")).isEqualTo(1);
+	}
+
+	@Test
+	public void testMaxSubscriptions() throws Exception {
+		Configuration configuration = this.configurationService.getConfiguration();
+		int maxSubscriptions = configuration.getWebSocketMaxSubscriptions();
+		configuration.setWebSocketMaxSubscriptions(1);
+		TestSession limitedSession = new TestSession("2", null, null);
+		try {
+			this.handler.afterConnectionEstablished(limitedSession);
+		}
+		finally {
+			configuration.setWebSocketMaxSubscriptions(maxSubscriptions);
+		}
+
+		this.handler.handleTextMessage(limitedSession,
+				new TextMessage("[{\"action\":\"pollProvider\",\"method\":\"handleMessage1\",\"type\":\"poll\"},"
+						+ "{\"action\":\"pollProvider\",\"method\":\"message6\",\"type\":\"poll\"}]"));
+		assertThat(this.pollEventPublisher.getSubscriberCount("message1")).isEqualTo(1);
+		assertThat(this.pollEventPublisher.getSubscriberCount("message6")).isEqualTo(0);
+		this.handler.afterConnectionClosed(limitedSession, CloseStatus.NORMAL);
+	}
+
+	@Test
+	public void testExpiredSession() throws Exception {
+		MockHttpSession httpSession = new MockHttpSession(null, "httpSession");
+		TestSession userSession = new TestSession("2", httpSession, null);
+		this.handler.afterConnectionEstablished(userSession);
+		httpSession.invalidate();
+
+		this.handler.handleTextMessage(userSession, new TextMessage(
+				"{\"action\":\"remoteProviderSessionAccess\",\"method\":\"user\",\"type\":\"rpc\",\"tid\":1}"));
+		assertThat(userSession.isOpen()).isFalse();
+		assertThat(userSession.messages).isEmpty();
+		this.handler.afterConnectionClosed(userSession, CloseStatus.POLICY_VIOLATION);
+	}
+
+	@Test
+	public void testSessionAndPrincipal() throws Exception {
+		TestSession userSession = new TestSession("2", new MockHttpSession(null, "httpSession"), () -> "ralph");
+		this.handler.afterConnectionEstablished(userSession);
+
+		this.handler.handleTextMessage(userSession, new TextMessage(
+				"{\"action\":\"remoteProviderSessionAccess\",\"method\":\"user\",\"type\":\"rpc\",\"tid\":1}"));
+
+		ExtDirectResponse resp = ControllerUtil
+			.readDirectResponse(userSession.awaitMessages(1).get(0).getBytes("UTF-8"));
+		assertThat(resp.getType()).isEqualTo("rpc");
+		assertThat(resp.getResult()).isEqualTo("httpSession:ralph");
+		this.handler.afterConnectionClosed(userSession, CloseStatus.NORMAL);
+	}
+
+	@Test
+	public void testExclusiveSessionAccess() throws Exception {
+		TestSession userSession = new TestSession("2", new MockHttpSession(null, "httpSession"), null);
+		this.handler.afterConnectionEstablished(userSession);
+
+		this.handler.handleTextMessage(userSession,
+				new TextMessage("[{\"action\":\"remoteProviderSessionAccess\",\"method\":\"write\",\"type\":\"rpc\","
+						+ "\"tid\":1},{\"action\":\"remoteProviderSessionAccess\",\"method\":\"write\","
+						+ "\"type\":\"rpc\",\"tid\":2}]"));
+
+		// the second call waits for the lock of the session and does not meet the first
+		assertThat(readResults(userSession, 2)).containsExactlyInAnyOrder(false, true);
+		this.handler.afterConnectionClosed(userSession, CloseStatus.NORMAL);
+	}
+
+	@Test
+	public void testSharedSessionAccess() throws Exception {
+		TestSession userSession = new TestSession("2", new MockHttpSession(null, "httpSession"), null);
+		this.handler.afterConnectionEstablished(userSession);
+
+		this.handler.handleTextMessage(userSession,
+				new TextMessage("[{\"action\":\"remoteProviderSessionAccess\",\"method\":\"read\",\"type\":\"rpc\","
+						+ "\"tid\":1},{\"action\":\"remoteProviderSessionAccess\",\"method\":\"read\","
+						+ "\"type\":\"rpc\",\"tid\":2}]"));
+
+		assertThat(readResults(userSession, 2)).containsExactly(true, true);
+		this.handler.afterConnectionClosed(userSession, CloseStatus.NORMAL);
+	}
+
+	@Test
+	public void testMaxConcurrentCalls() throws Exception {
+		Configuration configuration = this.configurationService.getConfiguration();
+		int maxConcurrentCalls = configuration.getWebSocketMaxConcurrentCalls();
+		configuration.setWebSocketMaxConcurrentCalls(1);
+		TestSession limitedSession = new TestSession("2", null, null);
+		try {
+			this.handler.afterConnectionEstablished(limitedSession);
+		}
+		finally {
+			configuration.setWebSocketMaxConcurrentCalls(maxConcurrentCalls);
+		}
+
+		this.handler.handleTextMessage(limitedSession,
+				new TextMessage("[{\"action\":\"remoteProviderSessionAccess\",\"method\":\"read\",\"type\":\"rpc\","
+						+ "\"tid\":1},{\"action\":\"remoteProviderSessionAccess\",\"method\":\"read\","
+						+ "\"type\":\"rpc\",\"tid\":2}]"));
+
+		// the second call only starts after the first completed
+		assertThat(readResults(limitedSession, 2)).containsExactlyInAnyOrder(false, true);
+		this.handler.afterConnectionClosed(limitedSession, CloseStatus.NORMAL);
+	}
+
+	private static List<Object> readResults(TestSession session, int count) throws Exception {
+		List<Object> results = new ArrayList<>();
+		for (String message : session.awaitMessages(count)) {
+			results.add(ControllerUtil.readDirectResponse(message.getBytes("UTF-8")).getResult());
+		}
+		return results;
+	}
+
+	private static final class TestSession implements WebSocketSession {
+
+		private final List<String> messages = new ArrayList<>();
+
+		private final Map<String, Object> attributes = new HashMap<>();
+
+		private final String id;
+
+		private final Principal principal;
+
+		private boolean open = true;
+
+		TestSession() {
+			this("1", null, null);
+		}
+
+		TestSession(String id, HttpSession httpSession, Principal principal) {
+			this.id = id;
+			this.principal = principal;
+			if (httpSession != null) {
+				this.attributes.put(ExtDirectWebSocketHandler.HTTP_SESSION_ATTRIBUTE, httpSession);
+			}
+		}
+
+		synchronized List<String> awaitMessages(int count) throws InterruptedException {
+			long end = System.currentTimeMillis() + 2000;
+			while (this.messages.size() < count && System.currentTimeMillis() < end) {
+				wait(50);
+			}
+			assertThat(this.messages).hasSizeGreaterThanOrEqualTo(count);
+			return new ArrayList<>(this.messages);
+		}
+
+		@Override
+		public synchronized void sendMessage(WebSocketMessage<?> message) throws IOException {
+			this.messages.add((String) message.getPayload());
+			notifyAll();
+		}
+
+		@Override
+		public String getId() {
+			return this.id;
+		}
+
+		@Override
+		public URI getUri() {
+			return URI.create("ws://localhost/websocket");
+		}
+
+		@Override
+		public HttpHeaders getHandshakeHeaders() {
+			return new HttpHeaders();
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() {
+			return this.attributes;
+		}
+
+		@Override
+		public Principal getPrincipal() {
+			return this.principal;
+		}
+
+		@Override
+		public InetSocketAddress getLocalAddress() {
+			return null;
+		}
+
+		@Override
+		public InetSocketAddress getRemoteAddress() {
+			return null;
+		}
+
+		@Override
+		public String getAcceptedProtocol() {
+			return null;
+		}
+
+		@Override
+		public void setTextMessageSizeLimit(int messageSizeLimit) {
+			// nothing here
+		}
+
+		@Override
+		public int getTextMessageSizeLimit() {
+			return 0;
+		}
+
+		@Override
+		public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+			// nothing here
+		}
+
+		@Override
+		public int getBinaryMessageSizeLimit() {
+			return 0;
+		}
+
+		@Override
+		public List<WebSocketExtension> getExtensions() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public boolean isOpen() {
+			return this.open;
+		}
+
+		@Override
+		public void close() {
+			this.open = false;
+		}
+
+		@Override
+		public void close(CloseStatus status) {
+			this.open = false;
+		}
+
+	}
+
+}
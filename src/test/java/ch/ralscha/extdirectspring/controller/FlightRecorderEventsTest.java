@@ -0,0 +1,141 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContext.xml")
+public class FlightRecorderEventsTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void testNoRecording() {
+		assertThat(ExtDirectCallEvent.beginIfEnabled()).isNull();
+		assertThat(ExtDirectBatchEvent.beginIfEnabled()).isNull();
+		assertThat(ApiGenerationEvent.beginIfEnabled()).isNull();
+	}
+
+	@Test
+	public void testEvents() throws Exception {
+		List<RecordedEvent> events;
+		byte[] response;
+		try (Recording recording = new Recording()) {
+			recording.enable("ch.ralscha.extdirectspring.Call");
+			recording.enable("ch.ralscha.extdirectspring.Batch");
+			recording.enable("ch.ralscha.extdirectspring.ApiGeneration");
+			recording.start();
+
+			response = ControllerUtil
+				.performRouterRequest(this.mockMvc,
+						ControllerUtil.createEdsRequest("remoteProviderSimple", "method1", 1, null))
+				.getResponse()
+				.getContentAsByteArray();
+
+			List<BeanMethod> bms = new ArrayList<>();
+			bms.add(new BeanMethod("remoteProviderSimple", "method1"));
+			bms.add(new BeanMethod("remoteProviderSimple", "method11"));
+			bms.get(0).setTid(2);
+			bms.get(1).setTid(3);
+			ControllerUtil.performRouterRequest(this.mockMvc, ControllerUtil.createEdsRequest(bms));
+
+			this.mockMvc.perform(get("/api.js").param("group", "jfr")).andExpect(status().isOk());
+			this.mockMvc.perform(get("/api.js").param("group", "jfr")).andExpect(status().isOk());
+
+			recording.stop();
+			Path file = Files.createTempFile("extdirectspring", ".jfr");
+			try {
+				recording.dump(file);
+				events = RecordingFile.readAllEvents(file);
+			}
+			finally {
+				Files.delete(file);
+			}
+		}
+
+		List<RecordedEvent> calls = events(events, "ch.ralscha.extdirectspring.Call");
+		assertThat(calls).hasSize(3);
+		assertThat(calls).allSatisfy(call -> assertThat(call.getString("action")).isEqualTo("remoteProviderSimple"));
+		ExtDirectResponse directResponse = ControllerUtil.readDirectResponses(response).get(0);
+		assertThat(directResponse.getResult()).isEqualTo("method1() called");
+		RecordedEvent method1 = calls.stream().filter(call -> call.getInt("tid") == 1).findFirst().get();
+		assertThat(method1.getString("method")).isEqualTo("method1");
+		assertThat(method1.getString("type")).isEqualTo("rpc");
+		// the response of the single call is the array around the response of the call
+		assertThat(method1.getLong("resultSize")).isEqualTo(response.length - 2);
+		RecordedEvent batchedMethod1 = calls.stream().filter(call -> call.getInt("tid") == 2).findFirst().get();
+		assertThat(batchedMethod1.getLong("resultSize")).isEqualTo(method1.getLong("resultSize"));
+		RecordedEvent method11 = calls.stream()
+			.filter(call -> call.getString("method").equals("method11"))
+			.findFirst()
+			.get();
+		assertThat(method11.getString("type")).isEqualTo("exception");
+
+		List<RecordedEvent> batches = events(events, "ch.ralscha.extdirectspring.Batch");
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0).getInt("size")).isEqualTo(2);
+		assertThat(batches.get(0).getString("policy")).isEqualTo("SEQUENTIAL");
+		assertThat(batches.get(0).getBoolean("incremental")).isFalse();
+
+		List<RecordedEvent> apis = events(events, "ch.ralscha.extdirectspring.ApiGeneration");
+		assertThat(apis).hasSize(2);
+		assertThat(apis).allSatisfy(api -> {
+			assertThat(api.getString("group")).isEqualTo("jfr");
+			assertThat(api.getString("format")).isEqualTo("js");
+		});
+		assertThat(apis.get(0).getBoolean("cacheHit")).isFalse();
+		assertThat(apis.get(1).getBoolean("cacheHit")).isTrue();
+	}
+
+	private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+		return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+	}
+
+}
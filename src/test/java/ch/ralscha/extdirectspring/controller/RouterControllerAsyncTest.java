@@ -0,0 +1,252 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderAsync;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContext.xml")
+public class RouterControllerAsyncTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void testCompleted() {
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderAsync", "completed", "completed:one", "one");
+	}
+
+	@Test
+	public void testDelayed() throws Exception {
+		ExtDirectResponse resp = ControllerUtil
+			.readDirectResponses(performAsyncRouterRequest(
+					ControllerUtil.createEdsRequest("remoteProviderAsync", "delayed", 1, new Object[] { "two" })))
+			.get(0);
+		assertThat(resp.getTid()).isEqualTo(1);
+		assertThat(resp.getType()).isEqualTo("rpc");
+		assertThat(resp.getResult()).isEqualTo("delayed:two");
+		assertThat(resp.getMessage()).isNull();
+	}
+
+	@Test
+	public void testDeferred() throws Exception {
+		ExtDirectResponse resp = ControllerUtil
+			.readDirectResponses(performAsyncRouterRequest(
+					ControllerUtil.createEdsRequest("remoteProviderAsync", "deferred", 2, new Object[] { "three" })))
+			.get(0);
+		assertThat(resp.getTid()).isEqualTo(2);
+		assertThat(resp.getType()).isEqualTo("rpc");
+		assertThat(resp.getResult()).isEqualTo("deferred:three");
+	}
+
+	@Test
+	public void testDelayedFailure() throws Exception {
+		ExtDirectResponse resp = ControllerUtil
+			.readDirectResponses(performAsyncRouterRequest(
+					ControllerUtil.createEdsRequest("remoteProviderAsync", "delayedFailure", 3, null)))
+			.get(0);
+		assertThat(resp.getTid()).isEqualTo(3);
+		assertThat(resp.getType()).isEqualTo("exception");
+		assertThat(resp.getMessage()).isEqualTo("Server Error");
+		assertThat(resp.getResult()).isNull();
+	}
+
+	@Test
+	public void testTimeout() throws Exception {
+		ExtDirectResponse resp = ControllerUtil
+			.readDirectResponses(
+					performAsyncRouterRequest(ControllerUtil.createEdsRequest("remoteProviderAsync", "never", 4, null)))
+			.get(0);
+		assertThat(resp.getTid()).isEqualTo(4);
+		assertThat(resp.getType()).isEqualTo("exception");
+		assertThat(resp.getMessage()).isEqualTo("Server Error");
+		assertThat(resp.getResult()).isNull();
+		// the timeout of the method does not complete the future of the bean
+		assertThat(RemoteProviderAsync.neverResult).isNotDone();
+	}
+
+	@Test
+	public void testAsyncRequestTimeout() throws Exception {
+		MvcResult result = this.mockMvc
+			.perform(post("/router").accept(MediaType.ALL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8")
+				.content(ControllerUtil.createEdsRequest("remoteProviderAsync", "pending", 5, null)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		expireAsyncRequest(result);
+
+		this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+		ExtDirectResponse resp = ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray())
+			.get(0);
+		assertThat(resp.getTid()).isEqualTo(5);
+		assertThat(resp.getType()).isEqualTo("exception");
+		assertThat(resp.getMessage()).isEqualTo("Server Error");
+	}
+
+	@Test
+	public void testAsyncRequestTimeoutOfMethod() throws Exception {
+		MvcResult result = this.mockMvc
+			.perform(post("/router").accept(MediaType.ALL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8")
+				.content(ControllerUtil.createEdsRequest("remoteProviderAsync", "never", 6, null)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(100);
+	}
+
+	@Test
+	public void testDeferredResultTimeout() throws Exception {
+		ExtDirectResponse resp = ControllerUtil
+			.readDirectResponses(performAsyncRouterRequest(
+					ControllerUtil.createEdsRequest("remoteProviderAsync", "deferredTimeout", 7, null)))
+			.get(0);
+		assertThat(resp.getTid()).isEqualTo(7);
+		assertThat(resp.getType()).isEqualTo("exception");
+		assertThat(resp.getMessage()).isEqualTo("Server Error");
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		List<BeanMethod> bms = new ArrayList<>();
+		bms.add(new BeanMethod("remoteProviderAsync", "completed", new Object[] { "a" }));
+		bms.add(new BeanMethod("remoteProviderAsync", "delayed", new Object[] { "b" }));
+		bms.add(new BeanMethod("remoteProviderSimple", "method1"));
+		bms.add(new BeanMethod("remoteProviderAsync", "deferred", new Object[] { "c" }));
+		for (int i = 0; i < bms.size(); i++) {
+			bms.get(i).setTid(i + 1);
+		}
+
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(performAsyncRouterRequest(ControllerUtil.createEdsRequest(bms)));
+		assertThat(responses).hasSize(4);
+		assertThat(responses).extracting(ExtDirectResponse::getTid).containsExactly(1, 2, 3, 4);
+		assertThat(responses).extracting(ExtDirectResponse::getResult)
+			.containsExactly("completed:a", "delayed:b", "method1() called", "deferred:c");
+	}
+
+	@Test
+	public void testPoll() throws Exception {
+		MvcResult result = this.mockMvc
+			.perform(post("/poll/remoteProviderAsync/asyncPoll/asyncPoll").accept(MediaType.ALL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8")
+				.param("id", "7"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		this.mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith("application/json;charset=UTF-8"));
+
+		ExtDirectPollResponse resp = ControllerUtil
+			.readDirectPollResponse(result.getResponse().getContentAsByteArray());
+		assertThat(resp.getType()).isEqualTo("event");
+		assertThat(resp.getName()).isEqualTo("asyncPoll");
+		assertThat(resp.getData()).isEqualTo("polled:7");
+		assertThat(resp.getWhere()).isNull();
+		assertThat(resp.getMessage()).isNull();
+	}
+
+	@Test
+	public void testPollAsyncRequestTimeout() throws Exception {
+		MvcResult result = this.mockMvc
+			.perform(post("/poll/remoteProviderAsync/pendingPoll/pendingPoll").accept(MediaType.ALL))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		expireAsyncRequest(result);
+
+		this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+		ExtDirectPollResponse resp = ControllerUtil
+			.readDirectPollResponse(result.getResponse().getContentAsByteArray());
+		assertThat(resp.getType()).isEqualTo("exception");
+		assertThat(resp.getName()).isEqualTo("pendingPoll");
+		assertThat(resp.getMessage()).isEqualTo("Server Error");
+	}
+
+	/**
+	 * Notifies the async listeners of a timeout, like the servlet container does when the
+	 * async timeout of the request expires.
+	 */
+	private static void expireAsyncRequest(MvcResult result) throws Exception {
+		MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+	}
+
+	private byte[] performAsyncRouterRequest(String content) throws Exception {
+		MvcResult result = this.mockMvc
+			.perform(post("/router").accept(MediaType.ALL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8")
+				.content(content))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		// asyncDispatch only waits for the async timeout of the request, which equals
+		// the timeout of the method and races with it
+		result.getAsyncResult(5000);
+
+		this.mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith("application/json;charset=UTF-8"));
+
+		return result.getResponse().getContentAsByteArray();
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests {@link Configuration#setBatchedMethodsTimeout(Integer)} and the timeout attribute
+ * of ExtDirectMethod for concurrently executed batches.
+ */
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextBatchTimeout.xml")
+public class RouterControllerBatchTimeoutTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void testTimeouts() throws Exception {
+		List<BeanMethod> bms = new ArrayList<>();
+		bms.add(new BeanMethod("remoteProviderSimple", "method1"));
+		bms.add(new BeanMethod("remoteProviderAsync", "slow"));
+		bms.add(new BeanMethod("remoteProviderAsync", "sleep"));
+		bms.add(new BeanMethod("remoteProviderAsync", "completed", new Object[] { "x" }));
+		for (int i = 0; i < bms.size(); i++) {
+			bms.get(i).setTid(i + 1);
+		}
+
+		long start = System.currentTimeMillis();
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc, ControllerUtil.createEdsRequest(bms));
+		assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).hasSize(4);
+		assertThat(responses).extracting(ExtDirectResponse::getTid).containsExactly(1, 2, 3, 4);
+
+		assertThat(responses.get(0).getType()).isEqualTo("rpc");
+		assertThat(responses.get(0).getResult()).isEqualTo("method1() called");
+
+		// method timeout of 100 ms
+		assertThat(responses.get(1).getType()).isEqualTo("exception");
+		assertThat(responses.get(1).getMessage()).isEqualTo("Server Error");
+		assertThat(responses.get(1).getResult()).isNull();
+
+		// batch deadline of 500 ms
+		assertThat(responses.get(2).getType()).isEqualTo("exception");
+		assertThat(responses.get(2).getMessage()).isEqualTo("Server Error");
+		assertThat(responses.get(2).getResult()).isNull();
+
+		assertThat(responses.get(3).getType()).isEqualTo("rpc");
+		assertThat(responses.get(3).getResult()).isEqualTo("completed:x");
+	}
+
+	@Test
+	public void testCallEventOfTimedOutCall() throws Exception {
+		List<BeanMethod> bms = new ArrayList<>();
+		bms.add(new BeanMethod("remoteProviderSimple", "method1"));
+		bms.add(new BeanMethod("remoteProviderAsync", "slow"));
+		for (int i = 0; i < bms.size(); i++) {
+			bms.get(i).setTid(i + 1);
+		}
+
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable("ch.ralscha.extdirectspring.Call");
+			recording.start();
+			ControllerUtil.performRouterRequest(this.mockMvc, ControllerUtil.createEdsRequest(bms));
+			// the interrupted call completes after its timeout response has been written
+			Thread.sleep(300);
+			recording.stop();
+
+			Path file = Files.createTempFile("extdirectspring", ".jfr");
+			try {
+				recording.dump(file);
+				events = RecordingFile.readAllEvents(file);
+			}
+			finally {
+				Files.delete(file);
+			}
+		}
+
+		RecordedEvent method1 = events.stream()
+			.filter(event -> event.getString("method").equals("method1"))
+			.findFirst()
+			.get();
+		assertThat(method1.getLong("resultSize")).isGreaterThan(0);
+		RecordedEvent slow = events.stream()
+			.filter(event -> event.getString("method").equals("slow"))
+			.findFirst()
+			.get();
+		assertThat(slow.getString("type")).isEqualTo("exception");
+		assertThat(slow.getLong("resultSize")).isEqualTo(-1);
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.provider.RemoteProviderCache;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+import ch.ralscha.extdirectspring.util.MethodResultCache;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContext.xml")
+public class RouterControllerCacheTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private MethodInfoCache methodInfoCache;
+
+	@Autowired
+	private RemoteProviderCache remoteProviderCache;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+		this.remoteProviderCache.reset();
+		resultCache("cached").clear();
+		resultCache("expiring").clear();
+		resultCache("cachedNull").clear();
+		resultCache("read").clear();
+	}
+
+	@Test
+	public void testCachedResult() {
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "a:1", new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "a:1", new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "b:2", new Object[] { "b" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "b:2", new Object[] { "b" });
+		assertThat(this.remoteProviderCache.getCalls()).isEqualTo(2);
+
+		MethodResultCache cache = resultCache("cached");
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getHitCount()).isEqualTo(2);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		MethodResultCache cache = resultCache("cached");
+		long evictions = cache.getEvictionCount();
+
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "a:1", new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "b:2", new Object[] { "b" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "a:1", new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "c:3", new Object[] { "c" });
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getEvictionCount()).isEqualTo(evictions + 1);
+
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "a:1", new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cached", "b:4", new Object[] { "b" });
+		assertThat(this.remoteProviderCache.getCalls()).isEqualTo(4);
+	}
+
+	@Test
+	public void testExpiredResult() throws InterruptedException {
+		String first = (String) ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "expiring",
+				String.class, new Object[] { "a" });
+		String second = (String) ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "expiring",
+				String.class, new Object[] { "a" });
+		assertThat(second).isEqualTo(first).endsWith(":1");
+
+		Thread.sleep(150);
+
+		String third = (String) ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "expiring",
+				String.class, new Object[] { "a" });
+		assertThat(third).endsWith(":2");
+		assertThat(this.remoteProviderCache.getCalls()).isEqualTo(2);
+	}
+
+	@Test
+	public void testNullIsNotCached() {
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cachedNull", Void.TYPE,
+				new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "cachedNull", Void.TYPE,
+				new Object[] { "a" });
+		assertThat(this.remoteProviderCache.getCalls()).isEqualTo(2);
+		assertThat(resultCache("cachedNull").size()).isEqualTo(0);
+	}
+
+	@Test
+	public void testStoreReadResult() {
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "read", List.of("books:0:1"),
+				readRequest("books", 0));
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "read", List.of("books:0:1"),
+				readRequest("books", 0));
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "read", List.of("books:25:2"),
+				readRequest("books", 25));
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "read", List.of("music:0:3"),
+				readRequest("music", 0));
+		assertThat(this.remoteProviderCache.getCalls()).isEqualTo(3);
+
+		MethodResultCache cache = resultCache("read");
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void testSessionParameterIsNotCached() {
+		assertThat(resultCache("session")).isNull();
+
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "session", "a:1", new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderCache", "session", "a:2", new Object[] { "a" });
+		assertThat(this.remoteProviderCache.getCalls()).isEqualTo(2);
+	}
+
+	private static Map<String, Object> readRequest(String query, int start) {
+		Map<String, Object> readRequest = new LinkedHashMap<>();
+		readRequest.put("query", query);
+		readRequest.put("start", start);
+		readRequest.put("limit", 25);
+		readRequest.put("sort", List.of(Map.of("property", "name", "direction", "ASC")));
+		readRequest.put("filter", List.of(Map.of("property", "price", "operator", "lt", "value", 100),
+				Map.of("property", "category", "value", "books")));
+		return readRequest;
+	}
+
+	private MethodResultCache resultCache(String method) {
+		return this.methodInfoCache.get("remoteProviderCache", method).getResultCache();
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.provider.RemoteProviderIdempotent;
+import ch.ralscha.extdirectspring.util.MethodCallCoalescer;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextCoalesce.xml")
+public class RouterControllerCoalesceTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private RemoteProviderIdempotent remoteProviderIdempotent;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+		this.remoteProviderIdempotent.reset();
+	}
+
+	@Test
+	public void testConcurrentCallsAreCoalesced() throws Exception {
+		MethodCallCoalescer coalescer = this.configurationService.getMethodCallCoalescer();
+		long executions = coalescer.getExecutionCount();
+		long coalesced = coalescer.getCoalescedCount();
+
+		this.remoteProviderIdempotent.closeGate();
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				results.add(executor.submit(() -> ControllerUtil.sendAndReceive(this.mockMvc,
+						"remoteProviderIdempotent", "gated", String.class, new Object[] { "a" })));
+			}
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (coalescer.getCoalescedCount() - coalesced < 4 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			this.remoteProviderIdempotent.openGate();
+
+			for (Future<Object> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("a:1");
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(this.remoteProviderIdempotent.getCalls()).isEqualTo(1);
+		assertThat(coalescer.getExecutionCount() - executions).isEqualTo(1);
+		assertThat(coalescer.getCoalescedCount() - coalesced).isEqualTo(4);
+		assertThat(coalescer.getInFlightCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testConcurrentStoreReadCallsAreCoalesced() throws Exception {
+		MethodCallCoalescer coalescer = this.configurationService.getMethodCallCoalescer();
+		long executions = coalescer.getExecutionCount();
+		long coalesced = coalescer.getCoalescedCount();
+
+		this.remoteProviderIdempotent.closeGate();
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				results.add(executor.submit(() -> ControllerUtil.sendAndReceive(this.mockMvc,
+						"remoteProviderIdempotent", "gatedRead", List.class,
+						Map.of("query", "books", "start", 0, "limit", 25, "sort",
+								List.of(Map.of("property", "name", "direction", "ASC")), "filter",
+								List.of(Map.of("property", "price", "operator", "lt", "value", 100))))));
+			}
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (coalescer.getCoalescedCount() - coalesced < 4 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			this.remoteProviderIdempotent.openGate();
+
+			for (Future<Object> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(List.of("books:1"));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(this.remoteProviderIdempotent.getCalls()).isEqualTo(1);
+		assertThat(coalescer.getExecutionCount() - executions).isEqualTo(1);
+		assertThat(coalescer.getCoalescedCount() - coalesced).isEqualTo(4);
+	}
+
+	@Test
+	public void testSessionParameterIsNotCoalesced() throws Exception {
+		MethodCallCoalescer coalescer = this.configurationService.getMethodCallCoalescer();
+		long executions = coalescer.getExecutionCount();
+		long coalesced = coalescer.getCoalescedCount();
+
+		this.remoteProviderIdempotent.closeGate();
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				results.add(executor.submit(() -> ControllerUtil.sendAndReceive(this.mockMvc,
+						"remoteProviderIdempotent", "gatedSession", String.class, new Object[] { "a" })));
+			}
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (this.remoteProviderIdempotent.getWaiting() < 3 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			this.remoteProviderIdempotent.openGate();
+
+			Set<Object> distinctResults = new HashSet<>();
+			for (Future<Object> result : results) {
+				distinctResults.add(result.get(5, TimeUnit.SECONDS));
+			}
+			assertThat(distinctResults).containsExactlyInAnyOrder("a:1", "a:2", "a:3");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(this.remoteProviderIdempotent.getCalls()).isEqualTo(3);
+		assertThat(coalescer.getExecutionCount()).isEqualTo(executions);
+		assertThat(coalescer.getCoalescedCount()).isEqualTo(coalesced);
+	}
+
+	@Test
+	public void testSequentialCallsAreExecuted() {
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderIdempotent", "gated", "a:1", new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderIdempotent", "gated", "a:2", new Object[] { "a" });
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderIdempotent", "write", "a:3", new Object[] { "a" });
+		assertThat(this.remoteProviderIdempotent.getCalls()).isEqualTo(3);
+	}
+
+}
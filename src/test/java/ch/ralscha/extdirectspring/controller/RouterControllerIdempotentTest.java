@@ -0,0 +1,101 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderIdempotent;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContext.xml")
+public class RouterControllerIdempotentTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private RemoteProviderIdempotent remoteProviderIdempotent;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+		this.remoteProviderIdempotent.reset();
+	}
+
+	@Test
+	public void testIdenticalCallsAreExecutedOnce() throws Exception {
+		List<ExtDirectResponse> responses = sendBatch(
+				new BeanMethod("remoteProviderIdempotent", "read", new Object[] { "a" }),
+				new BeanMethod("remoteProviderIdempotent", "read", new Object[] { "a" }),
+				new BeanMethod("remoteProviderIdempotent", "read", new Object[] { "b" }),
+				new BeanMethod("remoteProviderIdempotent", "read", new Object[] { "a" }));
+
+		assertThat(responses).extracting(ExtDirectResponse::getTid).containsExactly(1, 2, 3, 4);
+		assertThat(responses).extracting(ExtDirectResponse::getMethod).containsOnly("read");
+		assertThat(responses).extracting(ExtDirectResponse::getType).containsOnly("rpc");
+		assertThat(responses.get(0).getResult()).isEqualTo(responses.get(1).getResult())
+			.isEqualTo(responses.get(3).getResult());
+		assertThat(responses.get(2).getResult()).isNotEqualTo(responses.get(0).getResult());
+		assertThat(this.remoteProviderIdempotent.getCalls()).isEqualTo(2);
+	}
+
+	@Test
+	public void testNonIdempotentCallsAreExecutedEveryTime() throws Exception {
+		List<ExtDirectResponse> responses = sendBatch(
+				new BeanMethod("remoteProviderIdempotent", "write", new Object[] { "a" }),
+				new BeanMethod("remoteProviderIdempotent", "write", new Object[] { "a" }),
+				new BeanMethod("remoteProviderIdempotent", "write", new Object[] { "a" }));
+
+		assertThat(responses).extracting(ExtDirectResponse::getTid).containsExactly(1, 2, 3);
+		assertThat(responses).extracting(ExtDirectResponse::getResult).doesNotHaveDuplicates();
+		assertThat(this.remoteProviderIdempotent.getCalls()).isEqualTo(3);
+	}
+
+	private List<ExtDirectResponse> sendBatch(BeanMethod... beanMethods) throws Exception {
+		List<BeanMethod> bms = new ArrayList<>();
+		for (int i = 0; i < beanMethods.length; i++) {
+			beanMethods[i].setTid(i + 1);
+			bms.add(beanMethods[i]);
+		}
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc, ControllerUtil.createEdsRequest(bms));
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).hasSize(beanMethods.length);
+		return responses;
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextLongPoll.xml")
+public class RouterControllerLongPollTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private PollEventPublisher pollEventPublisher;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void testDataIsSentImmediately() throws Exception {
+		ExtDirectPollResponse resp = ControllerUtil.performPollRequest(this.mockMvc, "pollProvider", "handleMessage5",
+				"message5", Collections.singletonMap("id", "3"), null);
+		assertThat(resp.getName()).isEqualTo("message5");
+		assertThat(resp.getData()).isEqualTo(6);
+	}
+
+	@Test
+	public void testPublish() throws Exception {
+		MvcResult result = performLongPoll();
+		assertThat(this.pollEventPublisher.getWaiterCount("message5")).isEqualTo(1);
+
+		this.pollEventPublisher.publish("message5", "pushed");
+		result.getAsyncResult(2000);
+
+		ExtDirectPollResponse resp = ControllerUtil
+			.readDirectPollResponse(result.getResponse().getContentAsByteArray());
+		assertThat(resp.getType()).isEqualTo("event");
+		assertThat(resp.getName()).isEqualTo("message5");
+		assertThat(resp.getData()).isEqualTo("pushed");
+
+		complete(result);
+		assertThat(this.pollEventPublisher.getWaiterCount("message5")).isEqualTo(0);
+	}
+
+	@Test
+	public void testSignalWithoutData() throws Exception {
+		MvcResult result = performLongPoll();
+
+		this.pollEventPublisher.signal("message5");
+		Thread.sleep(200);
+
+		// the poll method still returns null, the request keeps waiting
+		assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+		assertThat(this.pollEventPublisher.getWaiterCount("message5")).isEqualTo(1);
+
+		timeout(result);
+	}
+
+	@Test
+	public void testTimeout() throws Exception {
+		MvcResult result = performLongPoll();
+		timeout(result);
+
+		ExtDirectPollResponse resp = ControllerUtil
+			.readDirectPollResponse(result.getResponse().getContentAsByteArray());
+		assertThat(resp.getType()).isEqualTo("event");
+		assertThat(resp.getName()).isEqualTo("message5");
+		assertThat(resp.getData()).isNull();
+		assertThat(this.pollEventPublisher.getWaiterCount("message5")).isEqualTo(0);
+	}
+
+	@Test
+	public void testServletParameterIsNotHeld() throws Exception {
+		ExtDirectPollResponse resp = ControllerUtil.performPollRequest(this.mockMvc, "pollProvider", "handleMessage7",
+				"message7", null, null);
+		assertThat(resp.getType()).isEqualTo("event");
+		assertThat(resp.getName()).isEqualTo("message7");
+		assertThat(resp.getData()).isNull();
+		assertThat(this.pollEventPublisher.getWaiterCount("message7")).isEqualTo(0);
+	}
+
+	@Test
+	public void testUnknownEventIsNotHeld() throws Exception {
+		ExtDirectPollResponse resp = ControllerUtil.performPollRequest(this.mockMvc, "pollProvider", "handleMessage5",
+				"message6", null, null);
+		assertThat(resp.getType()).isEqualTo("event");
+		assertThat(resp.getName()).isEqualTo("message6");
+		assertThat(resp.getData()).isNull();
+		assertThat(this.pollEventPublisher.getWaiterCount("message6")).isEqualTo(0);
+	}
+
+	private MvcResult performLongPoll() throws Exception {
+		return this.mockMvc
+			.perform(post("/poll/pollProvider/handleMessage5/message5").accept(MediaType.ALL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8"))
+			.andExpect(status().isOk())
+			.andExpect(request().asyncStarted())
+			.andReturn();
+	}
+
+	private static void timeout(MvcResult result) throws Exception {
+		MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+		complete(result);
+	}
+
+	private static void complete(MvcResult result) throws Exception {
+		MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onComplete(new AsyncEvent(asyncContext));
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextMetrics.xml")
+public class RouterControllerMetricsTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void testMethodCalls() throws Exception {
+		InMemoryRouterMetrics metrics = (InMemoryRouterMetrics) this.configurationService.getRouterMetrics();
+		long calls = count(metrics, "method1");
+		long errors = metrics.getErrorCount("remoteProviderSimple", "method11");
+		long responses = metrics.getResponseSizes().getCount();
+
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderSimple", "method1", "method1() called");
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderSimple", "method1", "method1() called");
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest("remoteProviderSimple", "method11", 1, null));
+		ExtDirectResponse response = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray())
+			.get(0);
+		assertThat(response.getType()).isEqualTo("exception");
+
+		ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest("remoteProviderSimple", "unknownMethod", 2, null));
+
+		assertThat(count(metrics, "method1")).isEqualTo(calls + 2);
+		assertThat(metrics.getErrorCount("remoteProviderSimple", "method1")).isZero();
+		assertThat(metrics.getErrorCount("remoteProviderSimple", "method11")).isEqualTo(errors + 1);
+		assertThat(metrics.getLatencies("remoteProviderSimple", "unknownMethod")).isNull();
+		assertThat(metrics.getResponseSizes().getCount()).isEqualTo(responses + 4);
+		assertThat(metrics.getResponseSizes().getMax()).isGreaterThan(0);
+
+		for (String phase : new String[] { "parse", "resolve", "invoke", "serialize" }) {
+			assertThat(metrics.getPhase(phase).getCount()).isGreaterThanOrEqualTo(3);
+		}
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		InMemoryRouterMetrics metrics = (InMemoryRouterMetrics) this.configurationService.getRouterMetrics();
+		long batches = metrics.getBatchSizes().getCount();
+		long calls = count(metrics, "method2");
+
+		List<BeanMethod> bms = new ArrayList<>();
+		bms.add(new BeanMethod("remoteProviderSimple", "method1"));
+		bms.add(new BeanMethod("remoteProviderSimple", "method2"));
+		bms.add(new BeanMethod("remoteProviderSimple", "method2"));
+		ControllerUtil.performRouterRequest(this.mockMvc, ControllerUtil.createEdsRequest(bms));
+
+		assertThat(metrics.getBatchSizes().getCount()).isEqualTo(batches + 1);
+		assertThat(metrics.getBatchSizes().getMax()).isGreaterThanOrEqualTo(3);
+		assertThat(count(metrics, "method2")).isEqualTo(calls + 2);
+	}
+
+	@Test
+	public void testEndpoint() throws Exception {
+		ControllerUtil.sendAndReceive(this.mockMvc, "remoteProviderSimple", "method1", "method1() called");
+
+		String content = this.mockMvc.perform(get("/router-metrics"))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		assertThat(content).contains("\"remoteProviderSimple.method1\"", "\"batchSize\"", "\"executorWait\"",
+				"\"responseSize\"", "\"phases\"", "\"invoke\"", "\"p99\"");
+	}
+
+	private static long count(InMemoryRouterMetrics metrics, String method) {
+		return metrics.getLatencies("remoteProviderSimple", method) != null
+				? metrics.getLatencies("remoteProviderSimple", method).getCount() : 0;
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextServerTiming.xml")
+public class RouterControllerServerTimingTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void testSingleCall() throws Exception {
+		MockHttpServletResponse response = ControllerUtil
+			.performRouterRequest(this.mockMvc,
+					ControllerUtil.createEdsRequest("remoteProviderSimple", "method1", 1, null))
+			.getResponse();
+		assertServerTiming(response.getHeaders("Server-Timing"));
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		List<BeanMethod> bms = new ArrayList<>();
+		bms.add(new BeanMethod("remoteProviderSimple", "method1"));
+		bms.add(new BeanMethod("remoteProviderSimple", "method2"));
+
+		MockHttpServletResponse response = ControllerUtil
+			.performRouterRequest(this.mockMvc, ControllerUtil.createEdsRequest(bms))
+			.getResponse();
+		assertThat(ControllerUtil.readDirectResponses(response.getContentAsByteArray())).hasSize(2);
+		assertServerTiming(response.getHeaders("Server-Timing"));
+	}
+
+	private static void assertServerTiming(List<String> headers) {
+		assertThat(headers).hasSize(2);
+		String duration = "dur=\\d+\\.\\d{3}";
+		assertThat(headers.get(0))
+			.matches("parse;" + duration + ", resolve;" + duration + ", invoke;" + duration);
+		assertThat(headers.get(1)).matches("serialize;" + duration);
+	}
+
+}
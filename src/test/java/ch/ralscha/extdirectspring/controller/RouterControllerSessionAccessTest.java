@@ -0,0 +1,100 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderSessionAccess;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextBatchTimeout.xml")
+public class RouterControllerSessionAccessTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private RemoteProviderSessionAccess remoteProviderSessionAccess;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+		this.remoteProviderSessionAccess.reset();
+	}
+
+	@Test
+	public void testSharedCallsRunInParallel() throws Exception {
+		assertThat(sendBatch(true, "read", "read")).containsExactly(true, true);
+	}
+
+	@Test
+	public void testExclusiveCallsRunAlone() throws Exception {
+		assertThat(sendBatch(true, "write", "write")).containsExactlyInAnyOrder(false, true);
+	}
+
+	@Test
+	public void testExclusiveCallWaitsForSharedCall() throws Exception {
+		assertThat(sendBatch(true, "read", "write")).containsExactlyInAnyOrder(false, true);
+	}
+
+	@Test
+	public void testNoSession() throws Exception {
+		assertThat(sendBatch(false, "write", "write")).containsExactly(true, true);
+	}
+
+	private List<Object> sendBatch(boolean withSession, String... methods) throws Exception {
+		List<BeanMethod> bms = new ArrayList<>();
+		for (int i = 0; i < methods.length; i++) {
+			BeanMethod beanMethod = new BeanMethod("remoteProviderSessionAccess", methods[i]);
+			beanMethod.setTid(i + 1);
+			bms.add(beanMethod);
+		}
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc, ControllerUtil.createEdsRequest(bms),
+				null, null, null, withSession);
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).hasSize(methods.length);
+		assertThat(responses).extracting(ExtDirectResponse::getType).containsOnly("rpc");
+
+		List<Object> results = new ArrayList<>();
+		for (ExtDirectResponse response : responses) {
+			results.add(response.getResult());
+		}
+		return results;
+	}
+
+}
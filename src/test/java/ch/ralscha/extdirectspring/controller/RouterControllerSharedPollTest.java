@@ -0,0 +1,91 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderSharedPoll;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContext.xml")
+public class RouterControllerSharedPollTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private RemoteProviderSharedPoll remoteProviderSharedPoll;
+
+	@Autowired
+	private PollEventPublisher pollEventPublisher;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void testSharedResult() throws Exception {
+		int calls = this.remoteProviderSharedPoll.getCalls();
+
+		ExtDirectPollResponse first = poll("1");
+		ExtDirectPollResponse second = poll("1");
+		assertThat(first.getName()).isEqualTo("sharedStatus");
+		assertThat((String) first.getData()).startsWith("1:");
+		assertThat(second.getData()).isEqualTo(first.getData());
+		assertThat(this.remoteProviderSharedPoll.getCalls()).isEqualTo(calls + 1);
+
+		ExtDirectPollResponse other = poll("2");
+		assertThat((String) other.getData()).startsWith("2:");
+		assertThat(this.pollEventPublisher.getSharedPollResultCount()).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	public void testRefresh() throws Exception {
+		ExtDirectPollResponse first = poll("3");
+
+		Object data = first.getData();
+		for (int i = 0; i < 50 && data.equals(first.getData()); i++) {
+			Thread.sleep(20);
+			data = poll("3").getData();
+		}
+		assertThat(data).isNotEqualTo(first.getData());
+		assertThat((String) data).startsWith("3:");
+	}
+
+	private ExtDirectPollResponse poll(String id) throws Exception {
+		return ControllerUtil.performPollRequest(this.mockMvc, "remoteProviderSharedPoll", "status", "sharedStatus",
+				Collections.singletonMap("id", id), null);
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextSse.xml")
+public class RouterControllerSseTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private PollEventPublisher pollEventPublisher;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void testPollAndPush() throws Exception {
+		MvcResult result = this.mockMvc.perform(get("/sse/pollProvider/handleMessage5/message5").param("id", "7"))
+			.andExpect(status().isOk())
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		MockHttpServletResponse response = result.getResponse();
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(30L * 60L * 1000L);
+
+		waitForContent(response, "\"data\":14");
+		assertThat(this.pollEventPublisher.getSubscriberCount("message5")).isEqualTo(1);
+
+		// unchanged poll results are not sent again
+		Thread.sleep(300);
+		assertThat(countFrames(response.getContentAsString())).isEqualTo(1);
+
+		this.pollEventPublisher.publish("message5", "pushed");
+		waitForContent(response, "\"data\":\"pushed\"");
+		assertThat(response.getContentAsString()).contains("\"name\":\"message5\"");
+		assertThat(countFrames(response.getContentAsString())).isGreaterThanOrEqualTo(2);
+
+		result.getRequest().getAsyncContext().complete();
+	}
+
+	@Test
+	public void testServletParameterIsCalledOnce() throws Exception {
+		MvcResult result = this.mockMvc.perform(get("/sse/pollProvider/handleMessage4/message4").param("id", "7"))
+			.andExpect(status().isOk())
+			.andReturn();
+		MockHttpServletResponse response = result.getResponse();
+
+		waitForContent(response, "\"data\":14");
+		assertThat(this.pollEventPublisher.getSubscriberCount("message4")).isEqualTo(0);
+
+		Thread.sleep(300);
+		assertThat(countFrames(response.getContentAsString())).isEqualTo(1);
+	}
+
+	@Test
+	public void testMethodNotFound() throws Exception {
+		MvcResult result = this.mockMvc.perform(get("/sse/pollProvider/handleMessage99/message99"))
+			.andExpect(status().isOk())
+			.andReturn();
+		waitForContent(result.getResponse(), "\"type\":\"exception\"");
+		assertThat(this.pollEventPublisher.getSubscriberCount("message99")).isEqualTo(0);
+	}
+
+	@Test
+	public void testUnknownEvent() throws Exception {
+		this.mockMvc.perform(get("/sse/pollProvider/handleMessage5/message6").param("id", "7"))
+			.andExpect(status().isNotFound());
+		assertThat(this.pollEventPublisher.getSubscriberCount("message6")).isEqualTo(0);
+	}
+
+	@Test
+	public void testApiAdvertisesSseUrls() throws Exception {
+		MvcResult result = this.mockMvc.perform(get("/api-debug.js")).andExpect(status().isOk()).andReturn();
+		String api = result.getResponse().getContentAsString();
+		assertThat(api).contains("Ext.app.POLLING_URLS = {");
+		assertThat(api).contains("\"message4\" : \"/poll/pollProvider/handleMessage4/message4\"");
+		assertThat(api).contains("Ext.app.SSE_URLS = {");
+		assertThat(api).contains("\"message4\" : \"/sse/pollProvider/handleMessage4/message4\"");
+	}
+
+	private static void waitForContent(MockHttpServletResponse response, String expected) throws Exception {
+		for (int i = 0; i < 100 && !response.getContentAsString().contains(expected); i++) {
+			Thread.sleep(20);
+		}
+		assertThat(response.getContentAsString()).contains(expected);
+	}
+
+	private static int countFrames(String content) {
+		int count = 0;
+		int ix = content.indexOf("data:");
+		while (ix != -1) {
+			count++;
+			ix = content.indexOf("data:", ix + 1);
+		}
+		return count;
+	}
+
+}
@@ -77,6 +77,16 @@ public class PollProvider {
 		return null;
 	}
 
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "message7")
+	public Integer handleMessage7(@RequestParam(value = "id", required = false) Integer id,
+			HttpServletRequest request) {
+		assertThat(request).isNotNull();
+		if (id != null) {
+			return id * 2;
+		}
+		return null;
+	}
+
 	@ExtDirectMethod(value = ExtDirectMethodType.POLL, group = "group2")
 	public String message6() {
 		Date now = new Date();
@@ -0,0 +1,99 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+
+@Service
+public class RemoteProviderAsync {
+
+	private static final Executor delayed = CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS);
+
+	public static volatile CompletableFuture<String> neverResult;
+
+	@ExtDirectMethod(group = "async")
+	public CompletableFuture<String> completed(String s) {
+		return CompletableFuture.completedFuture("completed:" + s);
+	}
+
+	@ExtDirectMethod(group = "async")
+	public CompletionStage<String> delayed(String s) {
+		return CompletableFuture.supplyAsync(() -> "delayed:" + s, delayed);
+	}
+
+	@ExtDirectMethod(group = "async")
+	public CompletableFuture<String> delayedFailure() {
+		return CompletableFuture.supplyAsync(() -> {
+			throw new IllegalArgumentException("async failure");
+		}, delayed);
+	}
+
+	@ExtDirectMethod(group = "async")
+	public DeferredResult<String> deferred(String s) {
+		DeferredResult<String> result = new DeferredResult<>();
+		delayed.execute(() -> result.setResult("deferred:" + s));
+		return result;
+	}
+
+	@ExtDirectMethod(group = "async", timeout = 100)
+	public CompletableFuture<String> never() {
+		neverResult = new CompletableFuture<>();
+		return neverResult;
+	}
+
+	@ExtDirectMethod(group = "async")
+	public CompletableFuture<String> pending() {
+		return new CompletableFuture<>();
+	}
+
+	@ExtDirectMethod(group = "async", timeout = 100)
+	public DeferredResult<String> deferredTimeout() {
+		return new DeferredResult<>();
+	}
+
+	@ExtDirectMethod(group = "async", timeout = 100)
+	public String slow() throws InterruptedException {
+		Thread.sleep(5000);
+		return "slow";
+	}
+
+	@ExtDirectMethod(group = "async")
+	public String sleep() throws InterruptedException {
+		Thread.sleep(5000);
+		return "sleep";
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "asyncPoll", group = "async")
+	public CompletableFuture<String> asyncPoll(@RequestParam(value = "id") int id) {
+		return CompletableFuture.supplyAsync(() -> "polled:" + id, delayed);
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "pendingPoll", group = "async")
+	public CompletableFuture<String> pendingPoll() {
+		return new CompletableFuture<>();
+	}
+
+}
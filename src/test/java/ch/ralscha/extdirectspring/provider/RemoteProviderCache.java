@@ -0,0 +1,76 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.http.HttpSession;
+
+import org.springframework.stereotype.Service;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectCacheable;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
+
+@Service
+public class RemoteProviderCache {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@ExtDirectMethod(group = "cache")
+	@ExtDirectCacheable(maxEntries = 2)
+	public String cached(String s) {
+		return s + ":" + this.calls.incrementAndGet();
+	}
+
+	@ExtDirectMethod(group = "cache")
+	@ExtDirectCacheable(ttl = 100, timeUnit = TimeUnit.MILLISECONDS)
+	public String expiring(String s, Locale locale) {
+		return s + ":" + locale + ":" + this.calls.incrementAndGet();
+	}
+
+	@ExtDirectMethod(group = "cache")
+	@ExtDirectCacheable
+	public String cachedNull(String s) {
+		this.calls.incrementAndGet();
+		return null;
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.STORE_READ, group = "cache")
+	@ExtDirectCacheable
+	public List<String> read(ExtDirectStoreReadRequest request) {
+		return List.of(request.getQuery() + ":" + request.getStart() + ":" + this.calls.incrementAndGet());
+	}
+
+	@ExtDirectMethod(group = "cache")
+	@ExtDirectCacheable
+	public String session(String s, HttpSession session) {
+		return s + ":" + this.calls.incrementAndGet();
+	}
+
+	public int getCalls() {
+		return this.calls.get();
+	}
+
+	public void reset() {
+		this.calls.set(0);
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.http.HttpSession;
+
+import org.springframework.stereotype.Service;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
+
+@Service
+public class RemoteProviderIdempotent {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private final AtomicInteger waiting = new AtomicInteger();
+
+	private volatile CountDownLatch gate = new CountDownLatch(0);
+
+	@ExtDirectMethod(group = "idempotent", idempotent = true)
+	public String read(String s) {
+		return s + ":" + this.calls.incrementAndGet();
+	}
+
+	@ExtDirectMethod(group = "idempotent")
+	public String write(String s) {
+		return s + ":" + this.calls.incrementAndGet();
+	}
+
+	@ExtDirectMethod(group = "idempotent", idempotent = true)
+	public String gated(String s) throws InterruptedException {
+		this.gate.await(5, TimeUnit.SECONDS);
+		return s + ":" + this.calls.incrementAndGet();
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.STORE_READ, group = "idempotent", idempotent = true)
+	public List<String> gatedRead(ExtDirectStoreReadRequest request) throws InterruptedException {
+		this.gate.await(5, TimeUnit.SECONDS);
+		return List.of(request.getQuery() + ":" + this.calls.incrementAndGet());
+	}
+
+	@ExtDirectMethod(group = "idempotent", idempotent = true)
+	public String gatedSession(String s, HttpSession session) throws InterruptedException {
+		this.waiting.incrementAndGet();
+		this.gate.await(5, TimeUnit.SECONDS);
+		return s + ":" + this.calls.incrementAndGet();
+	}
+
+	public void closeGate() {
+		this.gate = new CountDownLatch(1);
+	}
+
+	public void openGate() {
+		this.gate.countDown();
+	}
+
+	public int getCalls() {
+		return this.calls.get();
+	}
+
+	public int getWaiting() {
+		return this.waiting.get();
+	}
+
+	public void reset() {
+		this.calls.set(0);
+		this.waiting.set(0);
+		this.gate = new CountDownLatch(0);
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.security.Principal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.http.HttpSession;
+
+import org.springframework.stereotype.Service;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.SessionAccess;
+
+@Service
+public class RemoteProviderSessionAccess {
+
+	private volatile CountDownLatch arrivals = new CountDownLatch(2);
+
+	@ExtDirectMethod(group = "sessionAccess", sessionAccess = SessionAccess.SHARED)
+	public boolean read() throws InterruptedException {
+		return meet();
+	}
+
+	@ExtDirectMethod(group = "sessionAccess", sessionAccess = SessionAccess.EXCLUSIVE)
+	public boolean write() throws InterruptedException {
+		return meet();
+	}
+
+	@ExtDirectMethod(group = "sessionAccess")
+	public String user(HttpSession session, Principal principal) {
+		return session.getId() + ":" + principal.getName();
+	}
+
+	/**
+	 * @return true if a second call arrived while this call was running
+	 */
+	private boolean meet() throws InterruptedException {
+		CountDownLatch latch = this.arrivals;
+		latch.countDown();
+		return latch.await(300, TimeUnit.MILLISECONDS);
+	}
+
+	public void reset() {
+		this.arrivals = new CountDownLatch(2);
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.annotation.ExtDirectSharedPoll;
+import ch.ralscha.extdirectspring.annotation.SessionAccess;
+
+@Service
+public class RemoteProviderSharedPoll {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "sharedStatus", group = "sharedPoll")
+	@ExtDirectSharedPoll(refreshInterval = 100, timeUnit = TimeUnit.MILLISECONDS)
+	public String status(@RequestParam(value = "id", defaultValue = "0") int id) {
+		return id + ":" + this.calls.incrementAndGet();
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "sharedRequest", group = "sharedPoll")
+	@ExtDirectSharedPoll(refreshInterval = 100, timeUnit = TimeUnit.MILLISECONDS)
+	public String request(HttpServletRequest request) {
+		return request.getRemoteAddr();
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "sharedPrincipal", group = "sharedPoll")
+	@ExtDirectSharedPoll(refreshInterval = 100, timeUnit = TimeUnit.MILLISECONDS)
+	public String principal(Principal principal) {
+		return principal.getName();
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "sharedUser", group = "sharedPoll")
+	@ExtDirectSharedPoll(refreshInterval = 100, timeUnit = TimeUnit.MILLISECONDS)
+	public String user(@AuthenticationPrincipal Object user) {
+		return String.valueOf(user);
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, event = "sharedLocked", group = "sharedPoll",
+			sessionAccess = SessionAccess.EXCLUSIVE)
+	@ExtDirectSharedPoll(refreshInterval = 100, timeUnit = TimeUnit.MILLISECONDS)
+	public String locked() {
+		return "locked";
+	}
+
+	public int getCalls() {
+		return this.calls.get();
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class HistogramTest {
+
+	@Test
+	public void testBuckets() {
+		for (long value = 0; value < 16; value++) {
+			assertThat(Histogram.bucketUpperBound(Histogram.bucketIndex(value))).isEqualTo(value);
+		}
+		assertThat(Histogram.bucketIndex(16)).isEqualTo(Histogram.bucketIndex(17));
+		assertThat(Histogram.bucketIndex(18)).isEqualTo(Histogram.bucketIndex(17) + 1);
+
+		for (long value : new long[] { 16, 100, 1_000, 123_456_789, Long.MAX_VALUE }) {
+			long upperBound = Histogram.bucketUpperBound(Histogram.bucketIndex(value));
+			assertThat(upperBound).isGreaterThanOrEqualTo(value);
+			assertThat((double) (upperBound - value)).isLessThanOrEqualTo(value * 0.125);
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		Histogram histogram = new Histogram();
+		assertThat(histogram.getCount()).isZero();
+		assertThat(histogram.getMax()).isZero();
+		assertThat(histogram.getValueAtPercentile(50)).isZero();
+	}
+
+	@Test
+	public void testPercentiles() {
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+		histogram.record(-5);
+
+		assertThat(histogram.getCount()).isEqualTo(1001);
+		assertThat(histogram.getSum()).isEqualTo(500500);
+		assertThat(histogram.getMax()).isEqualTo(1000);
+		assertThat(histogram.getValueAtPercentile(0)).isZero();
+		assertThat(histogram.getValueAtPercentile(50)).isBetween(500L, 563L);
+		assertThat(histogram.getValueAtPercentile(99)).isBetween(990L, 1000L);
+		assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1000);
+	}
+
+}
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -28,12 +29,16 @@ import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.util.StringUtils;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
 
@@ -220,4 +225,68 @@ public class JsonHandlerTest {
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testReadDirectRequests() {
+		JsonHandler jsonHandler = new JsonHandler();
+
+		String single = "{\"action\":\"testAction\",\"method\":\"testMethod\",\"data\":[\"one\",{\"a\":1}],"
+				+ "\"type\":\"rpc\",\"tid\":1,\"metadata\":{\"id\":2}}";
+		List<ExtDirectRequest> requests = jsonHandler.readDirectRequests(toStream(single));
+		assertThat(requests).hasSize(1);
+		ExtDirectRequest req = requests.get(0);
+		assertEquals("testAction", req.getAction());
+		assertEquals("testMethod", req.getMethod());
+		assertEquals("rpc", req.getType());
+		assertEquals(1, req.getTid());
+		assertThat((List<Object>) req.getData()).containsExactly("one", Map.of("a", 1));
+		assertThat(req.getMetadata()).containsEntry("id", 2);
+
+		String batch = "[{\"action\":\"a1\",\"method\":\"m1\",\"data\":null,\"type\":\"rpc\",\"tid\":1},"
+				+ "{\"action\":\"a2\",\"method\":\"m2\",\"data\":[[1,2]],\"type\":\"rpc\",\"tid\":2}]";
+		requests = jsonHandler.readDirectRequests(toStream(batch));
+		assertThat(requests).hasSize(2);
+		assertEquals("a1", requests.get(0).getAction());
+		assertThat(requests.get(0).getData()).isNull();
+		assertEquals("m2", requests.get(1).getMethod());
+		assertEquals(2, requests.get(1).getTid());
+		assertThat((List<Object>) requests.get(1).getData()).containsExactly(List.of(1, 2));
+
+		assertThat(jsonHandler.readDirectRequests(toStream("[]"))).isEmpty();
+		assertThat(jsonHandler.readDirectRequests(toStream("\"rpc\""))).isNull();
+		assertThat(jsonHandler.readDirectRequests(toStream(""))).isNull();
+		assertThat(jsonHandler.readDirectRequests(toStream("[{\"action\":"))).isNull();
+	}
+
+	@Test
+	public void testCachedWritersAndReaders() throws IOException {
+		JsonHandler jsonHandler = new JsonHandler();
+
+		ObjectWriter writer = jsonHandler.getWriterWithView(String.class);
+		assertThat(writer.getConfig().getActiveView()).isEqualTo(String.class);
+		assertThat(jsonHandler.getWriterWithView(String.class)).isSameAs(writer);
+		assertThat(jsonHandler.getWriterWithView(Integer.class)).isNotSameAs(writer);
+		assertEquals("\"a\"", writer.writeValueAsString("a"));
+
+		TypeDescriptor listType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(Integer.class));
+		ObjectReader reader = jsonHandler.getReader(listType);
+		assertThat(jsonHandler.getReader(listType)).isSameAs(reader);
+		List<Integer> values = reader.readValue("[1,\"2\"]");
+		assertThat(values).containsExactly(1, 2);
+
+		JavaType arrayType = jsonHandler.getJavaType(TypeDescriptor.valueOf(int[].class));
+		assertThat(arrayType.isArrayType()).isTrue();
+		assertThat(jsonHandler.getJavaType(TypeDescriptor.valueOf(int[].class))).isSameAs(arrayType);
+		int[] converted = jsonHandler.convertValue(List.of(1, 2), arrayType);
+		assertArrayEquals(new int[] { 1, 2 }, converted);
+
+		jsonHandler.setMapper(new ObjectMapper());
+		assertThat(jsonHandler.getWriterWithView(String.class)).isNotSameAs(writer);
+		assertThat(jsonHandler.getReader(listType)).isNotSameAs(reader);
+	}
+
+	private static ByteArrayInputStream toStream(String json) {
+		return new ByteArrayInputStream(json.getBytes(ExtDirectSpringUtil.UTF8_CHARSET));
+	}
+
 }
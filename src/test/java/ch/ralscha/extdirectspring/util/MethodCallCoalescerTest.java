@@ -0,0 +1,77 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class MethodCallCoalescerTest {
+
+	@Test
+	public void testExceptionIsShared() throws Exception {
+		MethodCallCoalescer coalescer = new MethodCallCoalescer();
+		MethodCallKey key = new MethodCallKey("bean", "method", "a");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> {
+			try {
+				return coalescer.execute(key, () -> {
+					started.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					throw new IllegalStateException("failed");
+				});
+			}
+			catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> {
+			try {
+				return coalescer.execute(key, () -> "not executed");
+			}
+			catch (Exception e) {
+				return e;
+			}
+		});
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (coalescer.getCoalescedCount() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+
+		assertThat(follower.get(5, TimeUnit.SECONDS)).isInstanceOfSatisfying(IllegalStateException.class,
+				e -> assertThat(e).hasMessage("failed"));
+		assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+		assertThat(coalescer.getExecutionCount()).isEqualTo(1);
+		assertThat(coalescer.getCoalescedCount()).isEqualTo(1);
+		assertThat(coalescer.getInFlightCount()).isEqualTo(0);
+
+		assertThat(coalescer.execute(key, () -> "executed")).isEqualTo("executed");
+		assertThat(coalescer.getExecutionCount()).isEqualTo(2);
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ReflectionUtils;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+public class MethodInfoBeanResolutionTest {
+
+	@Test
+	public void testSingletonIsCached() throws Exception {
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.registerBean("counterBean", CounterBean.class);
+			context.refresh();
+
+			MethodInfo methodInfo = methodInfo(context);
+			Object bean = methodInfo.getBean(context, "counterBean");
+			assertThat(bean).isSameAs(context.getBean("counterBean"));
+			assertThat(methodInfo.getBean(context, "counterBean")).isSameAs(bean);
+
+			assertThat(ExtDirectSpringUtil.invoke(context, "counterBean", methodInfo, null)).isEqualTo(1);
+			assertThat(ExtDirectSpringUtil.invoke(context, "counterBean", methodInfo, null)).isEqualTo(2);
+		}
+	}
+
+	@Test
+	public void testPrototypeIsNotCached() throws Exception {
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.registerBean("counterBean", CounterBean.class, bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+			context.refresh();
+
+			MethodInfo methodInfo = methodInfo(context);
+			assertThat(methodInfo.getBean(context, "counterBean"))
+				.isNotSameAs(methodInfo.getBean(context, "counterBean"));
+
+			assertThat(ExtDirectSpringUtil.invoke(context, "counterBean", methodInfo, null)).isEqualTo(1);
+			assertThat(ExtDirectSpringUtil.invoke(context, "counterBean", methodInfo, null)).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testOtherContextIsNotServedFromCache() {
+		try (GenericApplicationContext context1 = new GenericApplicationContext();
+				GenericApplicationContext context2 = new GenericApplicationContext()) {
+			context1.registerBean("counterBean", CounterBean.class);
+			context1.refresh();
+			context2.registerBean("counterBean", CounterBean.class);
+			context2.refresh();
+
+			MethodInfo methodInfo = methodInfo(context1);
+			Object bean1 = methodInfo.getBean(context1, "counterBean");
+			Object bean2 = methodInfo.getBean(context2, "counterBean");
+			assertThat(bean1).isSameAs(context1.getBean("counterBean"));
+			assertThat(bean2).isSameAs(context2.getBean("counterBean"));
+			assertThat(bean1).isNotSameAs(bean2);
+		}
+	}
+
+	private static MethodInfo methodInfo(GenericApplicationContext context) {
+		return new MethodInfo(CounterBean.class, context, "counterBean",
+				ReflectionUtils.findMethod(CounterBean.class, "increment"));
+	}
+
+	public static class CounterBean {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@ExtDirectMethod
+		public int increment() {
+			return this.counter.incrementAndGet();
+		}
+
+	}
+
+}
@@ -22,7 +22,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
@@ -79,7 +78,7 @@ public class MethodInfoCacheTest {
 
 	@Test
 	public void testInvokeWithNull() {
-		assertThrows(NullPointerException.class, () -> {
+		assertThrows(IllegalArgumentException.class, () -> {
 			try (ClassPathXmlApplicationContext classPathXmlApplicationContext = new ClassPathXmlApplicationContext(
 					"/testApplicationContextB.xml")) {
 				ExtDirectSpringUtil.invoke(null, null, null, null);
@@ -89,7 +88,7 @@ public class MethodInfoCacheTest {
 
 	@Test
 	public void testNonExistingBeanAndMethod() {
-		assertThrows(NoSuchBeanDefinitionException.class, () -> {
+		assertThrows(IllegalArgumentException.class, () -> {
 			try (ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(
 					"/testApplicationContextB.xml")) {
 				MethodInfoCache methodInfoCache = context.getBean(MethodInfoCache.class);
@@ -101,7 +100,7 @@ public class MethodInfoCacheTest {
 
 	@Test
 	public void testExistingWithouEdsAnnotation() {
-		assertThrows(NullPointerException.class, () -> {
+		assertThrows(IllegalArgumentException.class, () -> {
 			MethodInfoCache methodInfoCache = new MethodInfoCache();
 			try (ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(
 					"/testApplicationContextB.xml")) {
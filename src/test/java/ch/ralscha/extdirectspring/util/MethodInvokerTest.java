@@ -0,0 +1,122 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ReflectionUtils;
+
+public class MethodInvokerTest {
+
+	@Test
+	public void testInvoke() throws Exception {
+		Target target = new Target();
+		assertThat(invoker("add", int.class, long.class).invoke(target, new Object[] { 1, 2L })).isEqualTo(3L);
+		assertThat(invoker("concat", String.class, String[].class).invoke(target,
+				new Object[] { "a", new String[] { "b", "c" } }))
+			.isEqualTo("abc");
+		assertThat(invoker("noArgs").invoke(target, null)).isEqualTo("noArgs");
+		assertThat(invoker("noArgs").invoke(target, new Object[0])).isEqualTo("noArgs");
+		assertThat(invoker("staticMethod", String.class).invoke(null, new Object[] { "s" })).isEqualTo("static-s");
+
+		invoker("voidMethod", String.class).invoke(target, new Object[] { "v" });
+		assertThat(target.value).isEqualTo("v");
+		assertThat(invoker("voidMethod", String.class).invoke(target, new Object[] { null })).isNull();
+		assertThat(target.value).isNull();
+	}
+
+	@Test
+	public void testOptional() throws Exception {
+		Target target = new Target();
+		assertThat(invoker("optional", String.class).invoke(target, new Object[] { "o" })).isEqualTo("o");
+		assertThat(invoker("optional", String.class).invoke(target, new Object[] { null })).isNull();
+		assertThat(invoker("object", Object.class).invoke(target, new Object[] { Optional.of(1) })).isEqualTo(1);
+		assertThat(invoker("object", Object.class).invoke(target, new Object[] { Optional.empty() })).isNull();
+		assertThat(invoker("object", Object.class).invoke(target, new Object[] { "x" })).isEqualTo("x");
+	}
+
+	@Test
+	public void testWideningFallsBackToReflection() throws Exception {
+		assertThat(invoker("add", int.class, long.class).invoke(new Target(), new Object[] { (short) 1, 2 }))
+			.isEqualTo(3L);
+	}
+
+	@Test
+	public void testIllegalArguments() {
+		MethodInvoker invoker = invoker("add", int.class, long.class);
+		Target target = new Target();
+		assertThrows(IllegalArgumentException.class, () -> invoker.invoke(target, new Object[] { null, 2L }));
+		assertThrows(IllegalArgumentException.class, () -> invoker.invoke(target, new Object[] { "1", 2L }));
+		assertThrows(IllegalArgumentException.class, () -> invoker.invoke(target, new Object[] { 1 }));
+		assertThrows(IllegalArgumentException.class, () -> invoker.invoke("notATarget", new Object[] { 1, 2L }));
+	}
+
+	@Test
+	public void testExceptionIsWrapped() {
+		InvocationTargetException e = assertThrows(InvocationTargetException.class,
+				() -> invoker("fail").invoke(new Target(), null));
+		assertThat(e.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("fail");
+	}
+
+	private static MethodInvoker invoker(String name, Class<?>... parameterTypes) {
+		return new MethodInvoker(ReflectionUtils.findMethod(Target.class, name, parameterTypes));
+	}
+
+	@SuppressWarnings("unused")
+	private static class Target {
+
+		String value = "initial";
+
+		public long add(int a, long b) {
+			return a + b;
+		}
+
+		public String concat(String first, String... others) {
+			return first + String.join("", others);
+		}
+
+		public String noArgs() {
+			return "noArgs";
+		}
+
+		public static String staticMethod(String s) {
+			return "static-" + s;
+		}
+
+		public void voidMethod(String v) {
+			this.value = v;
+		}
+
+		public Optional<String> optional(String o) {
+			return Optional.ofNullable(o);
+		}
+
+		public Object object(Object o) {
+			return o;
+		}
+
+		public String fail() {
+			throw new IllegalStateException("fail");
+		}
+
+	}
+
+}
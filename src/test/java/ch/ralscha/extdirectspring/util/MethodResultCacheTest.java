@@ -0,0 +1,134 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
+import ch.ralscha.extdirectspring.bean.SortDirection;
+import ch.ralscha.extdirectspring.bean.SortInfo;
+import ch.ralscha.extdirectspring.filter.Comparison;
+import ch.ralscha.extdirectspring.filter.NumericFilter;
+import ch.ralscha.extdirectspring.filter.StringFilter;
+
+public class MethodResultCacheTest {
+
+	@Test
+	public void testGetAndPut() {
+		MethodResultCache cache = new MethodResultCache(0, TimeUnit.SECONDS, 10);
+		MethodCallKey key = new MethodCallKey("bean", "method", "a");
+
+		assertThat(cache.get(key)).isNull();
+		cache.put(key, "result");
+		assertThat(cache.get(new MethodCallKey("bean", "method", "a"))).isEqualTo("result");
+		assertThat(cache.get(new MethodCallKey("bean", "method", "b"))).isNull();
+
+		cache.put(new MethodCallKey("bean", "method", "b"), null);
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+
+		cache.clear();
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.get(key)).isNull();
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		MethodResultCache cache = new MethodResultCache(0, TimeUnit.SECONDS, 2);
+		MethodCallKey a = new MethodCallKey("bean", "method", "a");
+		MethodCallKey b = new MethodCallKey("bean", "method", "b");
+		MethodCallKey c = new MethodCallKey("bean", "method", "c");
+
+		cache.put(a, "a");
+		cache.put(b, "b");
+		assertThat(cache.get(a)).isEqualTo("a");
+		cache.put(c, "c");
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+		assertThat(cache.get(a)).isEqualTo("a");
+		assertThat(cache.get(b)).isNull();
+		assertThat(cache.get(c)).isEqualTo("c");
+	}
+
+	@Test
+	public void testExpiration() throws InterruptedException {
+		MethodResultCache cache = new MethodResultCache(50, TimeUnit.MILLISECONDS, 10);
+		MethodCallKey key = new MethodCallKey("bean", "method", "a");
+		cache.put(key, "result");
+		assertThat(cache.get(key)).isEqualTo("result");
+
+		Thread.sleep(100);
+
+		assertThat(cache.get(key)).isNull();
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testCreateKey() {
+		ExtDirectRequest directRequest = new ExtDirectRequest();
+		directRequest.setData(new Object[] { "a" });
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		MethodCallKey key = MethodResultCache.createKey("bean", "method",
+				new Object[] { request, response, Locale.ENGLISH, directRequest, new int[] { 1, 2 } });
+		MethodCallKey sameKey = MethodResultCache.createKey("bean", "method",
+				new Object[] { new MockHttpServletRequest(), new MockHttpServletResponse(), Locale.ENGLISH,
+						directRequest, new int[] { 1, 2 } });
+		MethodCallKey otherLocaleKey = MethodResultCache.createKey("bean", "method",
+				new Object[] { request, response, Locale.GERMAN, directRequest, new int[] { 1, 2 } });
+
+		assertThat(key).isEqualTo(sameKey).hasSameHashCodeAs(sameKey).isNotEqualTo(otherLocaleKey);
+		assertThat(MethodResultCache.createKey("bean", "method", null))
+			.isEqualTo(new MethodCallKey("bean", "method", new Object[0]));
+	}
+
+	@Test
+	public void testCreateKeyOfStoreReadRequest() {
+		MethodCallKey key = MethodResultCache.createKey("bean", "method", new Object[] { readRequest(0, "books") });
+		MethodCallKey sameKey = MethodResultCache.createKey("bean", "method", new Object[] { readRequest(0, "books") });
+
+		assertThat(key).isEqualTo(sameKey).hasSameHashCodeAs(sameKey);
+		assertThat(key)
+			.isNotEqualTo(MethodResultCache.createKey("bean", "method", new Object[] { readRequest(25, "books") }));
+		assertThat(key)
+			.isNotEqualTo(MethodResultCache.createKey("bean", "method", new Object[] { readRequest(0, "music") }));
+	}
+
+	private static ExtDirectStoreReadRequest readRequest(int start, String category) {
+		ExtDirectStoreReadRequest readRequest = new ExtDirectStoreReadRequest();
+		readRequest.setStart(start);
+		readRequest.setLimit(25);
+		readRequest.setSorters(List.of(new SortInfo("name", SortDirection.ASCENDING)));
+		readRequest.setFilters(List.of(new NumericFilter("price", 100, "lt", Comparison.LESS_THAN),
+				new StringFilter("category", category, null, null)));
+		return readRequest;
+	}
+
+}
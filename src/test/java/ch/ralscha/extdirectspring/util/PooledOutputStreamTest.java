@@ -0,0 +1,90 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+public class PooledOutputStreamTest {
+
+	@Test
+	public void testHeapSegments() throws IOException {
+		testWriteAndReuse(false);
+	}
+
+	@Test
+	public void testDirectSegments() throws IOException {
+		testWriteAndReuse(true);
+	}
+
+	@Test
+	public void testPoolIsBounded() throws IOException {
+		OutputBufferPool pool = new OutputBufferPool(4, 2, false);
+		PooledOutputStream out = pool.newOutputStream();
+		out.write(new byte[20], 0, 20);
+		out.close();
+		assertThat(pool.getPooledSegmentCount()).isEqualTo(2);
+
+		OutputBufferPool noReuse = new OutputBufferPool(4, 0, false);
+		out = noReuse.newOutputStream();
+		out.write(new byte[20], 0, 20);
+		out.close();
+		assertThat(noReuse.getPooledSegmentCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testClosedStream() {
+		OutputBufferPool pool = new OutputBufferPool(4, 2, false);
+		PooledOutputStream out = pool.newOutputStream();
+		out.close();
+		out.close();
+		assertThrows(IOException.class, () -> out.write(1));
+		assertThrows(IOException.class, () -> out.writeTo(new ByteArrayOutputStream()));
+	}
+
+	private static void testWriteAndReuse(boolean direct) throws IOException {
+		OutputBufferPool pool = new OutputBufferPool(4, 10, direct);
+		byte[] data = "0123456789abcdefghij".getBytes(ExtDirectSpringUtil.UTF8_CHARSET);
+
+		try (PooledOutputStream out = pool.newOutputStream()) {
+			assertThat(out.size()).isEqualTo(0);
+			out.write(data, 0, 7);
+			out.write(data[7]);
+			out.write(data, 8, data.length - 8);
+			assertThat(out.size()).isEqualTo(data.length);
+
+			ByteArrayOutputStream target = new ByteArrayOutputStream();
+			out.writeTo(target);
+			assertThat(target.toByteArray()).isEqualTo(data);
+		}
+		assertThat(pool.getPooledSegmentCount()).isEqualTo(5);
+
+		try (PooledOutputStream out = pool.newOutputStream()) {
+			out.write(data, 0, 5);
+			ByteArrayOutputStream target = new ByteArrayOutputStream();
+			out.writeTo(target);
+			assertThat(target.toByteArray()).isEqualTo("01234".getBytes(ExtDirectSpringUtil.UTF8_CHARSET));
+			assertThat(pool.getPooledSegmentCount()).isEqualTo(3);
+		}
+		assertThat(pool.getPooledSegmentCount()).isEqualTo(5);
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class SessionLockManagerTest {
+
+	@Test
+	public void testStripes() {
+		assertThat(new SessionLockManager(1, false).getStripes()).isEqualTo(1);
+		assertThat(new SessionLockManager(64, false).getStripes()).isEqualTo(64);
+		assertThat(new SessionLockManager(100, true).getStripes()).isEqualTo(128);
+
+		SessionLockManager lockManager = new SessionLockManager(16, false);
+		assertThat(lockManager.getLock("session1")).isSameAs(lockManager.getLock("session1"));
+	}
+
+	@Test
+	public void testExclusive() throws Exception {
+		SessionLockManager lockManager = new SessionLockManager(16, false);
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean firstRunning = new AtomicBoolean();
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> call(lockManager, () -> {
+			firstRunning.set(true);
+			locked.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			firstRunning.set(false);
+			return "first";
+		}));
+		assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+		CompletableFuture<Boolean> second = CompletableFuture
+			.supplyAsync(() -> call(lockManager, () -> firstRunning.get()));
+
+		Thread.sleep(100);
+		assertThat(second).isNotDone();
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+		assertThat(second.get(5, TimeUnit.SECONDS)).isFalse();
+		assertThat(lockManager.getAcquisitionCount()).isEqualTo(2);
+		assertThat(lockManager.getContendedCount()).isEqualTo(1);
+		assertThat(lockManager.getMaxWaitTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+		assertThat(lockManager.getTotalWaitTime(TimeUnit.NANOSECONDS))
+			.isEqualTo(lockManager.getMaxWaitTime(TimeUnit.NANOSECONDS));
+	}
+
+	@Test
+	public void testShared() throws Exception {
+		SessionLockManager lockManager = new SessionLockManager(16, false);
+		CountDownLatch arrivals = new CountDownLatch(2);
+
+		CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> callShared(lockManager, () -> {
+			arrivals.countDown();
+			return arrivals.await(5, TimeUnit.SECONDS);
+		}));
+		CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> callShared(lockManager, () -> {
+			arrivals.countDown();
+			return arrivals.await(5, TimeUnit.SECONDS);
+		}));
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(lockManager.getContendedCount()).isEqualTo(0);
+	}
+
+	private static <T> T callShared(SessionLockManager lockManager, Callable<T> callable) {
+		try {
+			return lockManager.callShared("session", callable);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static <T> T call(SessionLockManager lockManager, Callable<T> callable) {
+		try {
+			return lockManager.callExclusive("session", callable);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+public class TextareaEscapingOutputStreamTest {
+
+	@Test
+	public void testEscaping() throws IOException {
+		assertEscaped("", "");
+		assertEscaped("{\"a\":\"b\"}", "{\"a\":\"b\"}");
+		assertEscaped("&quot;", "\\&quot;");
+		assertEscaped("a&quot;b&quot;&quot;c", "a\\&quot;b\\&quot;\\&quot;c");
+		assertEscaped("&&quot;&quo&amp;&quot", "&\\&quot;&quo&amp;&quot");
+		assertEscaped("\u00e4&quot;\u20ac", "\u00e4\\&quot;\u20ac");
+	}
+
+	@Test
+	public void testCloseDoesNotCloseTarget() throws IOException {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		TextareaEscapingOutputStream out = new TextareaEscapingOutputStream(target);
+		out.write("x&quo".getBytes(ExtDirectSpringUtil.UTF8_CHARSET));
+		out.close();
+		out.close();
+		target.write('!');
+		assertThat(target.toString(ExtDirectSpringUtil.UTF8_CHARSET)).isEqualTo("x&quo!");
+	}
+
+	private static void assertEscaped(String input, String expected) throws IOException {
+		byte[] bytes = input.getBytes(ExtDirectSpringUtil.UTF8_CHARSET);
+
+		ByteArrayOutputStream bulk = new ByteArrayOutputStream();
+		try (TextareaEscapingOutputStream out = new TextareaEscapingOutputStream(bulk)) {
+			out.write(bytes);
+		}
+		assertThat(bulk.toString(ExtDirectSpringUtil.UTF8_CHARSET)).isEqualTo(expected);
+
+		ByteArrayOutputStream single = new ByteArrayOutputStream();
+		try (TextareaEscapingOutputStream out = new TextareaEscapingOutputStream(single)) {
+			for (byte b : bytes) {
+				out.write(b);
+			}
+		}
+		assertThat(single.toString(ExtDirectSpringUtil.UTF8_CHARSET)).isEqualTo(expected);
+	}
+
+}
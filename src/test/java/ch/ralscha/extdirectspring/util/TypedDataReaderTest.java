@@ -0,0 +1,181 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ReflectionUtils;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.provider.RemoteProviderSimple;
+import ch.ralscha.extdirectspring.provider.RemoteProviderSimple.BusinessObject;
+import ch.ralscha.extdirectspring.provider.RemoteProviderSimpleNamed;
+import ch.ralscha.extdirectspring.provider.RemoteProviderStoreModify;
+import ch.ralscha.extdirectspring.provider.Row;
+
+@SuppressWarnings("unchecked")
+public class TypedDataReaderTest {
+
+	private TypedDataReader reader;
+
+	@BeforeEach
+	public void setupReader() {
+		MethodInfoCache methodInfoCache = new MethodInfoCache();
+		methodInfoCache.put("remoteProviderSimple", RemoteProviderSimple.class,
+				ReflectionUtils.findMethod(RemoteProviderSimple.class, "method25", String.class, List.class, int.class),
+				null);
+		methodInfoCache.put("remoteProviderSimple", RemoteProviderSimple.class,
+				ReflectionUtils.findMethod(RemoteProviderSimple.class, "method6", int.class, int.class), null);
+		methodInfoCache.put("remoteProviderSimpleNamed", RemoteProviderSimpleNamed.class, ReflectionUtils
+			.findMethod(RemoteProviderSimpleNamed.class, "method2", long.class, Double.class, String.class), null);
+		methodInfoCache.put("remoteProviderSimpleNamed", RemoteProviderSimpleNamed.class,
+				ReflectionUtils.findMethod(RemoteProviderSimpleNamed.class, "nonStrictMethod1", Map.class), null);
+		methodInfoCache
+			.put("remoteProviderStoreModify", RemoteProviderStoreModify.class,
+					ReflectionUtils.findMethod(RemoteProviderStoreModify.class, "create2", List.class,
+							HttpServletResponse.class, HttpServletRequest.class, HttpSession.class, Locale.class),
+					null);
+		this.reader = new TypedDataReader(new JsonHandler(), methodInfoCache);
+	}
+
+	@Test
+	public void testSimple() {
+		ExtDirectRequest directRequest = readOne("{\"action\":\"remoteProviderSimple\",\"method\":\"method25\","
+				+ "\"data\":[\"name\",[{\"id\":1,\"name\":\"one\",\"bd\":0.10000000000000000001}],3],"
+				+ "\"type\":\"rpc\",\"tid\":7,\"unknown\":{\"a\":[1]}}");
+
+		assertThat(directRequest.getAction()).isEqualTo("remoteProviderSimple");
+		assertThat(directRequest.getMethod()).isEqualTo("method25");
+		assertThat(directRequest.getType()).isEqualTo("rpc");
+		assertThat(directRequest.getTid()).isEqualTo(7);
+		assertThat(directRequest.isDataBound()).isTrue();
+
+		List<Object> data = (List<Object>) directRequest.getData();
+		assertThat(data).hasSize(3);
+		assertThat(data.get(0)).isEqualTo("name");
+		assertThat(data.get(2)).isEqualTo(3);
+
+		List<BusinessObject> bos = (List<BusinessObject>) data.get(1);
+		assertThat(bos).hasSize(1);
+		assertThat(bos.get(0).getId()).isEqualTo(1);
+		assertThat(bos.get(0).getName()).isEqualTo("one");
+		assertThat(bos.get(0).getBd()).isEqualTo(new BigDecimal("0.10000000000000000001"));
+	}
+
+	@Test
+	public void testSimpleNotMatchingFallsBack() {
+		ExtDirectRequest directRequest = readOne(
+				"{\"action\":\"remoteProviderSimple\",\"method\":\"method6\",\"data\":[\"notanumber\",2],\"type\":\"rpc\",\"tid\":1}");
+		assertThat(directRequest.isDataBound()).isFalse();
+		assertThat((List<Object>) directRequest.getData()).containsExactly("notanumber", 2);
+
+		directRequest = readOne(
+				"{\"action\":\"remoteProviderSimple\",\"method\":\"method6\",\"data\":{\"a\":1},\"type\":\"rpc\",\"tid\":1}");
+		assertThat(directRequest.isDataBound()).isFalse();
+		assertThat((Map<String, Object>) directRequest.getData()).containsEntry("a", 1);
+
+		directRequest = readOne(
+				"{\"action\":\"remoteProviderSimple\",\"method\":\"method6\",\"data\":null,\"type\":\"rpc\",\"tid\":1}");
+		assertThat(directRequest.isDataBound()).isFalse();
+		assertThat(directRequest.getData()).isNull();
+	}
+
+	@Test
+	public void testUnknownMethod() {
+		ExtDirectRequest directRequest = readOne(
+				"{\"action\":\"remoteProviderSimple\",\"method\":\"unknown\",\"data\":[1.5],\"type\":\"rpc\",\"tid\":1}");
+		assertThat(directRequest.isDataBound()).isFalse();
+		assertThat((List<Object>) directRequest.getData()).containsExactly(1.5);
+	}
+
+	@Test
+	public void testSimpleNamed() {
+		ExtDirectRequest directRequest = readOne("{\"action\":\"remoteProviderSimpleNamed\",\"method\":\"method2\","
+				+ "\"data\":{\"i\":\"10\",\"d\":2.5,\"s\":\"str\",\"other\":[1]},\"metadata\":{\"m\":1},\"type\":\"rpc\",\"tid\":2}");
+		assertThat(directRequest.isDataBound()).isTrue();
+		assertThat(directRequest.getMetadata()).containsEntry("m", 1);
+
+		Map<String, Object> data = (Map<String, Object>) directRequest.getData();
+		assertThat(data).containsEntry("i", 10L).containsEntry("d", 2.5).containsEntry("s", "str");
+		assertThat((List<Object>) data.get("other")).containsExactly(1);
+
+		directRequest = readOne("{\"action\":\"remoteProviderSimpleNamed\",\"method\":\"nonStrictMethod1\","
+				+ "\"data\":{\"i\":\"10\"},\"type\":\"rpc\",\"tid\":3}");
+		assertThat(directRequest.isDataBound()).isFalse();
+		assertThat((Map<String, Object>) directRequest.getData()).containsEntry("i", "10");
+	}
+
+	@Test
+	public void testStoreModify() {
+		ExtDirectRequest directRequest = readOne("{\"action\":\"remoteProviderStoreModify\",\"method\":\"create2\","
+				+ "\"data\":[[{\"id\":10,\"name\":\"Ralph\",\"admin\":true,\"salary\":109.55}]],\"type\":\"rpc\",\"tid\":4}");
+		assertThat(directRequest.isDataBound()).isTrue();
+
+		List<Object> data = (List<Object>) directRequest.getData();
+		assertThat(data).hasSize(1);
+		List<Row> rows = (List<Row>) data.get(0);
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).getId()).isEqualTo(10);
+		assertThat(rows.get(0).getName()).isEqualTo("Ralph");
+		assertThat(rows.get(0).getSalary()).isEqualTo(new BigDecimal("109.55"));
+
+		directRequest = readOne("{\"action\":\"remoteProviderStoreModify\",\"method\":\"create2\","
+				+ "\"data\":[{\"id\":10,\"name\":\"Ralph\"}],\"type\":\"rpc\",\"tid\":4}");
+		assertThat(directRequest.isDataBound()).isFalse();
+		assertThat((Map<String, Object>) ((List<Object>) directRequest.getData()).get(0)).containsEntry("id", 10);
+	}
+
+	@Test
+	public void testBatch() {
+		List<ExtDirectRequest> directRequests = this.reader.readDirectRequests(toStream(
+				"[{\"action\":\"remoteProviderSimple\",\"method\":\"method6\",\"data\":[1,2],\"type\":\"rpc\",\"tid\":1},"
+						+ "{\"action\":\"remoteProviderSimple\",\"method\":\"method6\",\"data\":[\"a\",2],\"type\":\"rpc\",\"tid\":2}]"));
+		assertThat(directRequests).hasSize(2);
+		assertThat(directRequests.get(0).getTid()).isEqualTo(1);
+		assertThat(directRequests.get(0).isDataBound()).isTrue();
+		assertThat(directRequests.get(1).getTid()).isEqualTo(2);
+		assertThat(directRequests.get(1).isDataBound()).isFalse();
+
+		assertThat(this.reader.readDirectRequests(toStream("[]"))).isEmpty();
+		assertThat(this.reader.readDirectRequests(toStream("\"str\""))).isNull();
+		assertThat(this.reader.readDirectRequests(toStream("{\"action\":"))).isNull();
+	}
+
+	private ExtDirectRequest readOne(String json) {
+		List<ExtDirectRequest> directRequests = this.reader.readDirectRequests(toStream(json));
+		assertThat(directRequests).hasSize(1);
+		return directRequests.get(0);
+	}
+
+	private static InputStream toStream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.data.MapEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.controller.ControllerUtil;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextViewIncrementalConcurrent.xml")
+public class SimpleMethodIncrementalConcurrentTest extends BaseViewTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testMultiple() throws Exception {
+		List<BeanMethod> bms = new ArrayList<>();
+		bms.add(new BeanMethod("simpleMethodService", "subclassSummaryView"));
+		bms.add(new BeanMethod("simpleMethodService", "subclassDetailView"));
+		bms.add(new BeanMethod("simpleMethodService", "noView"));
+		bms.add(new BeanMethod("simpleMethodService", "overrideSubclassDetailView"));
+		bms.add(new BeanMethod("simpleMethodService", "overrideSubclassNoView"));
+		for (int i = 0; i < bms.size(); i++) {
+			bms.get(i).setTid(i + 1);
+		}
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc, ControllerUtil.createEdsRequest(bms));
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).hasSize(5);
+
+		// responses are written in completion order
+		Map<Integer, ExtDirectResponse> responsesByTid = new HashMap<>();
+		for (ExtDirectResponse response : responses) {
+			responsesByTid.put(response.getTid(), response);
+		}
+		assertThat(responsesByTid).hasSize(5);
+
+		MapEntry[][] expected = { summaryView(), detailView(), noView(), detailView(), noView() };
+		for (BeanMethod bm : bms) {
+			ExtDirectResponse response = responsesByTid.get(bm.getTid());
+			assertThat(response.getAction()).isEqualTo(bm.getBean());
+			assertThat(response.getMethod()).isEqualTo(bm.getMethod());
+			assertThat(response.getWhere()).isNull();
+
+			Map<String, Object> data = (Map<String, Object>) response.getResult();
+			MapEntry[] entries = expected[bm.getTid() - 1];
+			assertThat(data).hasSize(entries.length);
+			assertThat(data).contains(entries);
+		}
+	}
+
+}